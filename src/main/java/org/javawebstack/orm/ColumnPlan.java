@@ -0,0 +1,82 @@
+package org.javawebstack.orm;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Maps the fields of a model to the column indexes of a result set, so rows can be read by index instead of
+ * looking up every column by name. Fields are addressed by their position in {@link TableInfo#getFields()}.
+ */
+public class ColumnPlan {
+
+    private final int[] columnIndexes;
+
+    private ColumnPlan(int[] columnIndexes) {
+        this.columnIndexes = columnIndexes;
+    }
+
+    public static ColumnPlan resolve(TableInfo info, ResultSet rs) throws SQLException {
+        return resolve(info, rs.getMetaData());
+    }
+
+    public static ColumnPlan resolve(TableInfo info, ResultSetMetaData meta) throws SQLException {
+        List<String> fields = info.getFields();
+        int[] columnIndexes = new int[fields.size()];
+        int columnCount = meta.getColumnCount();
+        String[] labels = new String[columnCount + 1];
+        String[] tables = new String[columnCount + 1];
+        for (int i = 1; i <= columnCount; i++) {
+            labels[i] = meta.getColumnLabel(i);
+            tables[i] = tableName(meta, i);
+        }
+        String tableName = info.getTableName();
+        String qualifiedPrefix = tableName + ".";
+        for (int f = 0; f < fields.size(); f++) {
+            String columnName = info.getColumnName(fields.get(f));
+            int index = 0;
+            for (int i = 1; i <= columnCount; i++) {
+                if (columnName.equalsIgnoreCase(labels[i])) {
+                    // When several tables have the same column, the one of the model's own table is preferred
+                    if (index == 0 || tableName.equalsIgnoreCase(tables[i]))
+                        index = i;
+                    if (tableName.equalsIgnoreCase(tables[i]))
+                        break;
+                } else if (index == 0 && (qualifiedPrefix + columnName).equalsIgnoreCase(labels[i])) {
+                    index = i;
+                }
+            }
+            columnIndexes[f] = index;
+        }
+        return new ColumnPlan(columnIndexes);
+    }
+
+    private static String tableName(ResultSetMetaData meta, int column) {
+        try {
+            return meta.getTableName(column);
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the column index of a field.
+     *
+     * @param fieldOrdinal The position of the field in the model's field list.
+     * @return The 1-based column index or 0 if the result set doesn't contain the field.
+     */
+    public int getColumnIndex(int fieldOrdinal) {
+        return columnIndexes[fieldOrdinal];
+    }
+
+    public int getColumnIndex(TableInfo info, String fieldName) {
+        int ordinal = info.getFieldIndex(fieldName);
+        return ordinal == -1 ? 0 : columnIndexes[ordinal];
+    }
+
+    public int size() {
+        return columnIndexes.length;
+    }
+
+}
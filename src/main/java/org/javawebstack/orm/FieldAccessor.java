@@ -0,0 +1,106 @@
+package org.javawebstack.orm;
+
+import org.javawebstack.orm.exception.ORMQueryException;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+
+/**
+ * Reads and writes a single model field through the generated ModelBinder of the model if it covers the field, or
+ * through reflection otherwise (e.g. for private or final fields, or when the ModelProcessor didn't run). Method
+ * handles held in fields aren't constants to the JIT, so they wouldn't be inlined and are no faster than reflection.
+ */
+public class FieldAccessor {
+
+    private final Field field;
+    private final ModelBinder<Model> binder;
+    private final int binderIndex;
+    private final Object typeDefault;
+
+    public FieldAccessor(Field field) {
+        this(field, null, -1);
+    }
+
+    public FieldAccessor(Field field, ModelBinder<Model> binder, int binderIndex) {
+        field.setAccessible(true);
+        this.field = field;
+        this.binder = binderIndex == -1 ? null : binder;
+        this.binderIndex = binderIndex;
+        this.typeDefault = field.getType().isPrimitive() ? Array.get(Array.newInstance(field.getType(), 1), 0) : null;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public String getName() {
+        return field.getName();
+    }
+
+    public Class<?> getType() {
+        return field.getType();
+    }
+
+    /**
+     * Retrieves the value the field has in a new instance before any initializer ran (null, or zero for primitives).
+     */
+    public Object getTypeDefault() {
+        return typeDefault;
+    }
+
+    public Object get(Object entity) {
+        try {
+            if (binder != null)
+                return binder.get((Model) entity, binderIndex);
+            return field.get(entity);
+        } catch (IllegalAccessException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    public void set(Object entity, Object value) {
+        try {
+            if (binder != null) {
+                binder.set((Model) entity, binderIndex, value);
+                return;
+            }
+            field.set(entity, value);
+        } catch (ClassCastException | NullPointerException ex) {
+            // Keeps the exception reflection would throw for a value that doesn't fit the field
+            if (entity == null)
+                throw ex;
+            throw new IllegalArgumentException("Can not set " + field.getType().getName() + " field " + field.getName() + " to " + (value == null ? "null value" : value.getClass().getName()));
+        } catch (IllegalAccessException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    /*
+     * The primitive setters write the value without boxing it. They may only be used for fields of the exact type.
+     */
+
+    public void setInt(Object entity, int value) {
+        try {
+            field.setInt(entity, value);
+        } catch (IllegalAccessException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    public void setLong(Object entity, long value) {
+        try {
+            field.setLong(entity, value);
+        } catch (IllegalAccessException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    public void setDouble(Object entity, double value) {
+        try {
+            field.setDouble(entity, value);
+        } catch (IllegalAccessException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+}
@@ -2,9 +2,6 @@ package org.javawebstack.orm;
 
 import org.javawebstack.orm.query.Query;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -14,103 +11,118 @@ import java.util.function.Function;
 
 public class Model {
 
-    private static final Method saveMethod;
-    private static final Method deleteMethod;
-    private static final Method finalDeleteMethod;
-    private static final Method restoreMethod;
-    private static final Method refreshMethod;
-
-    {
-        updateOriginal();
-    }
-
-    static {
-        try {
-            saveMethod = Repo.class.getMethod("save", Model.class);
-            deleteMethod = Repo.class.getMethod("delete", Model.class);
-            finalDeleteMethod = Repo.class.getMethod("finalDelete", Model.class);
-            restoreMethod = Repo.class.getMethod("restore", Model.class);
-            refreshMethod = Repo.class.getMethod("refresh", Model.class);
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
     private transient boolean internalEntryExists = false;
-    private transient final Map<Class<? extends Model>, Object> internalJoinedModels = new HashMap<>();
-    private transient Map<String, Object> internalOriginalValues = new HashMap<>();
-    private transient Map<String, Object> internalExtraFields = new HashMap<>();
+    private transient boolean internalReadOnly = false;
+    // Allocated on first use, most instances never need them
+    private transient Map<Class<? extends Model>, Object> internalJoinedModels;
+    private transient Object[] internalOriginalValues;
+    private transient Map<String, Object> internalExtraFields;
 
     void internalAddJoinedModel(Class<? extends Model> type, Object entity) {
+        if (internalJoinedModels == null)
+            internalJoinedModels = new HashMap<>();
         internalJoinedModels.put(type, entity);
     }
 
-    void updateOriginal() {
-        internalOriginalValues = getFieldValues();
+    /**
+     * Takes a snapshot of the current field values, indexed like {@link TableInfo#getFields()}. Instances without a
+     * snapshot (new ones that haven't been saved yet) are compared against the default values of the field types.
+     */
+    void updateOriginal(TableInfo info) {
+        int size = info.getFields().size();
+        Object[] values = internalOriginalValues != null && internalOriginalValues.length == size ? internalOriginalValues : new Object[size];
+        for (int i = 0; i < size; i++)
+            values[i] = info.getAccessor(i).get(this);
+        internalOriginalValues = values;
+    }
+
+    private Object getOriginalValue(TableInfo info, int ordinal) {
+        if (internalOriginalValues == null)
+            return info.getAccessor(ordinal).getTypeDefault();
+        return internalOriginalValues[ordinal];
     }
 
     public Map<String, Object> getFieldValues() {
         TableInfo info = Repo.get(getClass()).getInfo();
+        List<String> fields = info.getFields();
         Map<String, Object> values = new HashMap<>();
-        for (String field : info.getFields()) {
-            try {
-                values.put(field, info.getField(field).get(this));
-            } catch (IllegalAccessException ignored) {
-            }
-        }
+        for (int i = 0; i < fields.size(); i++)
+            values.put(fields.get(i), info.getAccessor(i).get(this));
         return values;
     }
 
     public Map<String, Object> getExtraFields() {
+        if (internalExtraFields == null)
+            internalExtraFields = new HashMap<>();
         return internalExtraFields;
     }
 
     public <T> T getExtraField(String key) {
+        if (internalExtraFields == null)
+            return null;
         return (T) internalExtraFields.get(key);
     }
 
     public Map<String, Object> getOriginalValues() {
-        return internalOriginalValues;
+        TableInfo info = Repo.get(getClass()).getInfo();
+        List<String> fields = info.getFields();
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++)
+            values.put(fields.get(i), getOriginalValue(info, i));
+        return values;
     }
 
     public <T> T getOriginalValue(String field) {
-        if (internalOriginalValues.get(field) == null)
+        TableInfo info = Repo.get(getClass()).getInfo();
+        int ordinal = info.getFieldIndex(field);
+        if (ordinal == -1)
             return null;
-        return (T) internalOriginalValues.get(field);
+        return (T) getOriginalValue(info, ordinal);
     }
 
     public boolean isDirty(String... fields) {
-        List<String> dirty = getDirtyFields();
-        if(fields.length == 0 && dirty.size() > 0)
-            return true;
+        TableInfo info = Repo.get(getClass()).getInfo();
+        if (fields.length == 0) {
+            for (int i = 0; i < info.getFields().size(); i++) {
+                if (isDirty(info, i))
+                    return true;
+            }
+            return false;
+        }
         for (String f : fields) {
-            if (dirty.contains(f))
+            int ordinal = info.getFieldIndex(f);
+            if (ordinal != -1 && isDirty(info, ordinal))
                 return true;
         }
         return false;
     }
 
     public List<String> getDirtyFields() {
+        TableInfo info = Repo.get(getClass()).getInfo();
         List<String> dirty = new ArrayList<>();
-        Map<String, Object> original = getOriginalValues();
-        Map<String, Object> current = getFieldValues();
-        for (String key : current.keySet()) {
-            Object o = original.get(key);
-            Object c = current.get(key);
-            if (o == null && c == null)
-                continue;
-            if (o == null || !o.equals(c))
-                dirty.add(key);
+        for (int i = 0; i < info.getFields().size(); i++) {
+            if (isDirty(info, i))
+                dirty.add(info.getFields().get(i));
         }
         return dirty;
     }
 
+    private boolean isDirty(TableInfo info, int ordinal) {
+        Object o = getOriginalValue(info, ordinal);
+        Object c = info.getAccessor(ordinal).get(this);
+        if (o == null && c == null)
+            return false;
+        return o == null || !o.equals(c);
+    }
+
     public <T extends Model> T getJoined(Class<T> model) {
+        if (internalJoinedModels == null)
+            return null;
         return (T) internalJoinedModels.get(model);
     }
 
     public boolean hasJoined(Class<? extends Model> model) {
-        return internalJoinedModels.containsKey(model);
+        return internalJoinedModels != null && internalJoinedModels.containsKey(model);
     }
 
     boolean doesEntryExist() {
@@ -121,45 +133,42 @@ public class Model {
         this.internalEntryExists = exists;
     }
 
+    /**
+     * Checks whether the entity has been loaded by a read-only query. Read-only entities don't track changes and can't
+     * be saved.
+     *
+     * @return True if the entity is read-only.
+     */
+    public boolean isReadOnly() {
+        return internalReadOnly;
+    }
+
+    void setReadOnly(boolean readOnly) {
+        this.internalReadOnly = readOnly;
+    }
+
     public void save() {
-        try {
-            saveMethod.invoke(ORM.repo(getClass()), this);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            e.printStackTrace();
-            throw new RuntimeException(e);
-        }
+        repo().save(this);
     }
 
     public void delete() {
-        try {
-            deleteMethod.invoke(ORM.repo(getClass()), this);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
-        }
+        repo().delete(this);
     }
 
     public void finalDelete() {
-        try {
-            finalDeleteMethod.invoke(ORM.repo(getClass()), this);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
-        }
+        repo().finalDelete(this);
     }
 
     public void restore() {
-        try {
-            restoreMethod.invoke(ORM.repo(getClass()), this);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
-        }
+        repo().restore(this);
     }
 
     public void refresh() {
-        try {
-            refreshMethod.invoke(ORM.repo(getClass()), this);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
-        }
+        repo().refresh(this);
+    }
+
+    private Repo<Model> repo() {
+        return (Repo<Model>) ORM.repo(getClass());
     }
 
     public <T extends Model> Query<T> belongsTo(Class<T> parent) {
@@ -171,12 +180,8 @@ public class Model {
     }
 
     public <T extends Model> Query<T> belongsTo(Class<T> parent, String fieldName, String otherFieldName) {
-        try {
-            Object id = Repo.get(getClass()).getInfo().getField(fieldName).get(this);
-            return Repo.get(parent).where(otherFieldName, id);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        Object id = Repo.get(getClass()).getInfo().getAccessor(fieldName).get(this);
+        return Repo.get(parent).where(otherFieldName, id);
     }
 
     public <T extends Model> void assignTo(T value) {
@@ -194,17 +199,13 @@ public class Model {
     }
 
     public <T extends Model> void assignTo(Class<T> parent, T value, String fieldName, String otherFieldName) {
-        try {
-            Field f = Repo.get(getClass()).getInfo().getField(fieldName);
-            if (value == null) {
-                f.set(this, null);
-            } else {
-                Repo<T> repo = Repo.get(parent);
-                Object id = repo.getInfo().getField(otherFieldName).get(value);
-                f.set(this, id);
-            }
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
+        FieldAccessor accessor = Repo.get(getClass()).getInfo().getAccessor(fieldName);
+        if (value == null) {
+            accessor.set(this, null);
+        } else {
+            Repo<T> repo = Repo.get(parent);
+            Object id = repo.getInfo().getAccessor(otherFieldName).get(value);
+            accessor.set(this, id);
         }
     }
 
@@ -217,13 +218,9 @@ public class Model {
     }
 
     public <T extends Model> Query<T> hasMany(Class<T> child, String fieldName, String ownFieldName) {
-        try {
-            Repo<?> ownRepo = Repo.get(getClass());
-            Object id = ownRepo.getInfo().getField(ownFieldName).get(this);
-            return Repo.get(child).where(fieldName, id);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        Repo<?> ownRepo = Repo.get(getClass());
+        Object id = ownRepo.getInfo().getAccessor(ownFieldName).get(this);
+        return Repo.get(child).where(fieldName, id);
     }
 
     public <T extends Model, P extends Model> Query<T> belongsToMany(Class<T> other, Class<P> pivot) {
@@ -247,19 +244,15 @@ public class Model {
     }
 
     public <T extends Model, P extends Model> Query<T> belongsToMany(Class<T> other, Class<P> pivot, String selfPivotFieldName, String otherPivotFieldName, String selfFieldName, String otherFieldName, Function<Query<P>, Query<P>> pivotFilter) {
-        try {
-            Repo<?> selfRepo = Repo.get(getClass());
-            Repo<T> otherRepo = Repo.get(other);
-            Object id = selfRepo.getInfo().getField(selfFieldName).get(this);
-            return otherRepo.whereExists(pivot, q -> {
-                q.where(pivot, selfPivotFieldName, "=", id).where(pivot, otherPivotFieldName, "=", other, otherFieldName);
-                if (pivotFilter != null)
-                    q = pivotFilter.apply(q);
-                return q;
-            });
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        Repo<?> selfRepo = Repo.get(getClass());
+        Repo<T> otherRepo = Repo.get(other);
+        Object id = selfRepo.getInfo().getAccessor(selfFieldName).get(this);
+        return otherRepo.whereExists(pivot, q -> {
+            q.where(pivot, selfPivotFieldName, "=", id).where(pivot, otherPivotFieldName, "=", other, otherFieldName);
+            if (pivotFilter != null)
+                q = pivotFilter.apply(q);
+            return q;
+        });
     }
 
 }
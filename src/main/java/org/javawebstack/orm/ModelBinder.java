@@ -0,0 +1,25 @@
+package org.javawebstack.orm;
+
+import java.util.List;
+
+/**
+ * Creates instances of a model and accesses its column fields without reflection. Implementations are generated at
+ * compile time by the ModelProcessor as {@code <Model>_ORM} classes next to the model and picked up by the TableInfo
+ * when present. Only fields which are neither private nor final are covered, the others fall back to reflection.
+ *
+ * @param <T> The model type
+ */
+public interface ModelBinder<T extends Model> {
+
+    String SUFFIX = "_ORM";
+    String INDEX_RESOURCE = "META-INF/javawebstack-orm/models";
+
+    T newInstance();
+
+    List<String> getFields();
+
+    Object get(T entity, int index);
+
+    void set(T entity, int index, Object value);
+
+}
@@ -4,27 +4,51 @@ import org.javawebstack.orm.exception.ORMConfigurationException;
 import org.javawebstack.orm.migration.AutoMigrator;
 import org.javawebstack.orm.wrapper.SQL;
 import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 public class ORM {
 
     public static final Logger LOGGER = Logger.getLogger("ORM");
 
-    private static final Map<Class<? extends Model>, Repo<?>> repositories = new HashMap<>();
+    private static final Map<Class<? extends Model>, Repo<?>> repositories = new ConcurrentHashMap<>();
+    // Per class slot of the registered repository, so lookups don't need to hash the class
+    private static final ClassValue<AtomicReference<Repo<?>>> repositoryLookup = new ClassValue<AtomicReference<Repo<?>>>() {
+        protected AtomicReference<Repo<?>> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+    private static final TableVersionTracker versionTracker = new TableVersionTracker();
 
     public static <T extends Model> Repo<T> repo(Class<T> model) {
-        return (Repo<T>) repositories.get(model);
+        return (Repo<T>) repositoryLookup.get(model).get();
     }
 
     public static <T extends Model> Repo<T> register(Class<T> model, SQL sql, ORMConfig config) throws ORMConfigurationException {
         Repo<T> repo = new Repo<>(model, sql, config);
-        repositories.put(model, repo);
+        synchronized (repositories) {
+            repositories.put(model, repo);
+            repositoryLookup.get(model).set(repo);
+        }
         return repo;
     }
 
@@ -33,22 +57,71 @@ public class ORM {
     }
 
     public static void register(Package p, SQL sql, ORMConfig config) throws ORMConfigurationException {
-        for (Class<? extends Model> model : new Reflections(p.getName()).getSubTypesOf(Model.class)) {
+        for (Class<? extends Model> model : findModels(p.getName())) {
             if (!Modifier.isAbstract(model.getModifiers()))
                 ORM.register(model, sql, config);
         }
     }
 
+    /**
+     * Finds the models of the package (and its sub-packages). Classpath roots with an index written by the
+     * ModelProcessor are read from it, all other roots containing the package are scanned, so models compiled without
+     * the processor are found as well.
+     *
+     * @return The found models.
+     */
+    private static Set<Class<? extends Model>> findModels(String packageName) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null)
+            classLoader = ORM.class.getClassLoader();
+        Set<Class<? extends Model>> models = new HashSet<>();
+        Set<String> indexedRoots = new HashSet<>();
+        try {
+            Enumeration<URL> indexes = classLoader.getResources(ModelBinder.INDEX_RESOURCE);
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (line.startsWith(packageName + ".") && !line.substring(packageName.length() + 1).isEmpty())
+                            models.add(Class.forName(line, false, classLoader).asSubclass(Model.class));
+                    }
+                }
+                String url = index.toExternalForm();
+                indexedRoots.add(url.substring(0, url.length() - ModelBinder.INDEX_RESOURCE.length()));
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+            LOGGER.warning("Couldn't read the model index, falling back to classpath scanning: " + ex.getMessage());
+            return new Reflections(packageName).getSubTypesOf(Model.class);
+        }
+        List<URL> unindexedRoots = ClasspathHelper.forPackage(packageName, classLoader).stream()
+                .filter(url -> !indexedRoots.contains(url.toExternalForm()))
+                .collect(Collectors.toList());
+        if (!unindexedRoots.isEmpty()) {
+            if (!indexedRoots.isEmpty())
+                LOGGER.fine("Scanning the classpath roots without a model index for models in " + packageName + ": " + unindexedRoots);
+            models.addAll(new Reflections(new ConfigurationBuilder()
+                    .setUrls(unindexedRoots)
+                    .filterInputsBy(new FilterBuilder().includePackage(packageName))
+            ).getSubTypesOf(Model.class));
+        }
+        return models;
+    }
+
     public static void register(Package p, SQL sql) throws ORMConfigurationException {
         register(p, sql, new ORMConfig());
     }
 
     public static void unregister(Class<? extends Model> model) {
-        repositories.remove(model);
+        synchronized (repositories) {
+            repositories.remove(model);
+            repositoryLookup.get(model).set(null);
+        }
     }
 
     public static void unregister(Repo<?> model) {
-        repositories.remove(model.getInfo().getModelClass());
+        unregister(model.getInfo().getModelClass());
     }
 
     public static List<Class<? extends Model>> getModels() {
@@ -59,6 +132,23 @@ public class ORM {
         return new ArrayList<>(repositories.values());
     }
 
+    /**
+     * Runs the action in a session, so every row loaded or created within it is represented by a single instance.
+     * Sessions are bound to the current thread, nested calls join the outer session.
+     *
+     * @param action The action to run.
+     */
+    public static void session(Runnable action) {
+        Session.run(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <R> R session(Supplier<R> action) {
+        return Session.run(action);
+    }
+
     public static void autoDrop() {
         AutoMigrator.drop(repositories.values().toArray(new Repo<?>[0]));
     }
@@ -71,8 +161,26 @@ public class ORM {
         AutoMigrator.migrate(fresh, repositories.values().toArray(new Repo<?>[0]));
     }
 
+    /**
+     * Drops the cached results and entities of all tables that have been written since the last call, including
+     * writes by other nodes. It is meant to be called once per request and only needs a single query per connection.
+     * Requires table versioning to be enabled in the ORMConfig of the repositories.
+     */
+    public static void validateCaches() {
+        versionTracker.validate(repositories.values());
+    }
+
+    static TableVersionTracker getVersionTracker() {
+        return versionTracker;
+    }
+
     public static void reset() {
-        repositories.clear();
+        synchronized (repositories) {
+            for (Class<? extends Model> model : repositories.keySet())
+                repositoryLookup.get(model).set(null);
+            repositories.clear();
+        }
+        versionTracker.reset();
     }
 
 }
@@ -6,6 +6,9 @@ import org.javawebstack.orm.mapper.TypeMapper;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 
 public class ORMConfig {
     private String tablePrefix = "";
@@ -14,7 +17,13 @@ public class ORMConfig {
     private boolean idPrimaryKey = true;
     private boolean idAutoIncrement = true;
     private final List<TypeMapper> typeMappers = new ArrayList<>();
+    private final Map<Class<?>, UnaryOperator<Object>> parameterConverters = new ConcurrentHashMap<>();
     private boolean preventUnnecessaryUpdates = true;
+    private boolean updateDirtyOnly = false;
+    private int batchSize = 1000;
+    private boolean fullTextSearch = false;
+    private boolean orderSearchByRelevance = false;
+    private boolean tableVersioning = false;
 
     public ORMConfig() {
         typeMappers.add(new DefaultMapper());
@@ -40,6 +49,7 @@ public class ORMConfig {
 
     public ORMConfig addTypeMapper(TypeMapper typeMapper) {
         typeMappers.add(typeMapper);
+        parameterConverters.clear();
         return this;
     }
 
@@ -86,6 +96,22 @@ public class ORMConfig {
         return null;
     }
 
+    /**
+     * Retrieves the conversion of query parameters of the given type, which is resolved once per type.
+     *
+     * @param type The java type of the parameter.
+     * @return The converter of the first type mapper supporting the type or IDENTITY if none does.
+     */
+    public UnaryOperator<Object> getParameterConverter(Class<?> type) {
+        UnaryOperator<Object> converter = parameterConverters.get(type);
+        if (converter == null) {
+            TypeMapper mapper = getTypeMapper(type, 0);
+            converter = mapper == null ? TypeMapper.IDENTITY : mapper.toSQLConverter(type);
+            parameterConverters.put(type, converter);
+        }
+        return converter;
+    }
+
     public SQLType getType(Class<?> type, int size) {
         for (TypeMapper mapper : getTypeMappers()) {
             SQLType sqlType = mapper.getType(type, size);
@@ -112,4 +138,56 @@ public class ORMConfig {
         this.preventUnnecessaryUpdates = preventUnnecessaryUpdates;
         return this;
     }
+
+    public boolean shouldUpdateDirtyOnly() {
+        return updateDirtyOnly;
+    }
+
+    public ORMConfig setUpdateDirtyOnly(boolean updateDirtyOnly) {
+        this.updateDirtyOnly = updateDirtyOnly;
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public ORMConfig setBatchSize(int batchSize) throws ORMConfigurationException {
+        if(batchSize <= 0)
+            throw new ORMConfigurationException("Batch size must be positive and non-zero.");
+
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public boolean isFullTextSearch() {
+        return fullTextSearch;
+    }
+
+    public ORMConfig setFullTextSearch(boolean fullTextSearch) {
+        this.fullTextSearch = fullTextSearch;
+        return this;
+    }
+
+    public boolean shouldOrderSearchByRelevance() {
+        return orderSearchByRelevance;
+    }
+
+    public ORMConfig setOrderSearchByRelevance(boolean orderSearchByRelevance) {
+        this.orderSearchByRelevance = orderSearchByRelevance;
+        return this;
+    }
+
+    public boolean isTableVersioning() {
+        return tableVersioning;
+    }
+
+    /**
+     * Makes every write increase the version of the written table in the orm_table_versions table, so caches on other
+     * nodes can detect the change with ORM.validateCaches().
+     */
+    public ORMConfig setTableVersioning(boolean tableVersioning) {
+        this.tableVersioning = tableVersioning;
+        return this;
+    }
 }
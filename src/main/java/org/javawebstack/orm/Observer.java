@@ -1,5 +1,7 @@
 package org.javawebstack.orm;
 
+import java.util.List;
+
 public interface Observer<T extends Model> {
 
     default void creating(T model) {
@@ -32,4 +34,25 @@ public interface Observer<T extends Model> {
     default void restored(T model) {
     }
 
+    /*
+     * Bulk callbacks for the set-based operations of the repository. By default they delegate to the single entry
+     * callbacks, so observers only need to override them if they can handle the whole batch at once.
+     */
+
+    default void deletingAll(List<T> models) {
+        models.forEach(this::deleting);
+    }
+
+    default void deletedAll(List<T> models) {
+        models.forEach(this::deleted);
+    }
+
+    default void restoringAll(List<T> models) {
+        models.forEach(this::restoring);
+    }
+
+    default void restoredAll(List<T> models) {
+        models.forEach(this::restored);
+    }
+
 }
@@ -1,22 +1,35 @@
 package org.javawebstack.orm;
 
+import org.javawebstack.orm.cache.EntityCache;
+import org.javawebstack.orm.cache.LRUCache;
+import org.javawebstack.orm.cache.QueryCache;
 import org.javawebstack.orm.exception.ORMConfigurationException;
 import org.javawebstack.orm.exception.ORMQueryException;
 import org.javawebstack.orm.filter.DefaultQueryFilter;
 import org.javawebstack.orm.filter.QueryFilter;
 import org.javawebstack.orm.migration.AutoMigrator;
 import org.javawebstack.orm.query.Query;
+import org.javawebstack.orm.util.Helper;
 import org.javawebstack.orm.wrapper.SQL;
 import org.javawebstack.orm.wrapper.builder.SQLQueryString;
 
-import java.lang.reflect.Field;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -28,14 +41,19 @@ public class Repo<T extends Model> {
 
     private final TableInfo info;
     private final SQL connection;
-    private final List<Observer<T>> observers = new ArrayList<>();
+    private final List<Observer<T>> observers = new CopyOnWriteArrayList<>();
     private Accessible accessible;
     private QueryFilter filter;
+    private QueryCache queryCache;
+    private EntityCache entityCache;
+    private boolean readOnly;
+    // Bounded, as raw queries with inlined values would otherwise add a plan per distinct SQL text
+    private final LRUCache<String, ColumnPlan> rawPlans = new LRUCache<>(256, 0);
 
     public Repo(Class<T> clazz, SQL connection, ORMConfig config) throws ORMConfigurationException {
         this.info = new TableInfo(clazz, config);
         this.connection = connection;
-        filter = new DefaultQueryFilter(info.getFilterable(), info.getSearchable());
+        filter = new DefaultQueryFilter(info.getFilterable(), info.getSearchable(), config.isFullTextSearch(), config.shouldOrderSearchByRelevance());
     }
 
     public Repo<T> setAccessible(Accessible accessible) {
@@ -52,6 +70,165 @@ public class Repo<T extends Model> {
         return filter;
     }
 
+    /**
+     * Enables caching of the results of all(), first() and count() for queries on this repository. Every write through
+     * the ORM invalidates the cached results of the affected table.
+     *
+     * @param queryCache The cache to use or null to disable caching.
+     * @return The repository itself.
+     */
+    public Repo<T> setQueryCache(QueryCache queryCache) {
+        this.queryCache = queryCache;
+        return this;
+    }
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Makes all queries of this repository read-only by default, so the loaded entities skip change tracking and can't
+     * be saved. Single queries can opt out with readOnly(false).
+     *
+     * @param readOnly Whether queries should be read-only by default.
+     * @return The repository itself.
+     */
+    public Repo<T> setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+        return this;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Enables caching of single entities loaded by their id or a unique field, e.g. through get(id) or
+     * where("email", email).first(). Writes through the ORM invalidate the affected entities.
+     *
+     * @param entityCache The cache to use or null to disable caching.
+     * @return The repository itself.
+     */
+    public Repo<T> setEntityCache(EntityCache entityCache) {
+        this.entityCache = entityCache;
+        return this;
+    }
+
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * Answers a key lookup query from the entity cache.
+     *
+     * @return A copy of the cached entity or null if it isn't cached.
+     */
+    public T getCached(Query<T> query) {
+        if (entityCache == null)
+            return null;
+        String field = query.getLookupField();
+        if (field == null)
+            return null;
+        Object value = Helper.normalizeKey(query.getRestrictedValues(field).get(0));
+        boolean byId = field.equals(info.getIdField());
+        Object id = byId ? value : entityCache.getId(field, value);
+        if (id == null)
+            return null;
+        T cached = (T) entityCache.get(id);
+        if (cached == null)
+            return null;
+        // The key index isn't invalidated, so the entity might not have the value anymore
+        if (!byId && !value.equals(Helper.normalizeKey(info.getAccessor(field).get(cached))))
+            return null;
+        return SQLMapper.copy(this, cached, query.isReadOnly());
+    }
+
+    /**
+     * Stores a copy of the entity in the entity cache.
+     *
+     * @param generation The generation of the entity cache taken before the entity was read.
+     */
+    public void cacheEntity(T entity, long generation) {
+        if (entityCache == null)
+            return;
+        Object id = getId(entity);
+        if (id == null)
+            return;
+        id = Helper.normalizeKey(id);
+        entityCache.put(id, SQLMapper.copy(this, entity, false), generation);
+        for (String field : info.getUniqueKeys()) {
+            Object value = info.getAccessor(field).get(entity);
+            if (value != null)
+                entityCache.putKey(field, Helper.normalizeKey(value), id);
+        }
+        if (info.getPrimaryKey() != null && !info.getPrimaryKey().equals(info.getIdField())) {
+            Object value = info.getAccessor(info.getPrimaryKey()).get(entity);
+            if (value != null)
+                entityCache.putKey(info.getPrimaryKey(), Helper.normalizeKey(value), id);
+        }
+    }
+
+    /**
+     * Drops the entities a write query may have changed from the entity cache. Queries restricted to ids only drop
+     * these, all other queries clear the cache.
+     */
+    public void invalidateEntityCache(Query<T> query) {
+        if (entityCache == null)
+            return;
+        List<Object> ids = query.getRestrictedValues(info.getIdField());
+        if (ids == null) {
+            entityCache.clear();
+            return;
+        }
+        for (Object id : ids)
+            invalidateEntity(id);
+    }
+
+    /**
+     * Removes the rows a delete query may have hit from the session of the current thread. Queries restricted to ids
+     * only remove these, all other queries remove every entity of this repository.
+     */
+    public void detachDeleted(Query<T> query) {
+        Session session = Session.current();
+        if (session == null)
+            return;
+        List<Object> ids = query.getRestrictedValues(info.getIdField());
+        if (ids == null) {
+            session.detachAll(this);
+            return;
+        }
+        for (Object id : ids)
+            session.detach(this, id);
+    }
+
+    private void invalidateEntity(Object id) {
+        if (entityCache != null && id != null)
+            entityCache.invalidate(Helper.normalizeKey(id));
+    }
+
+    /**
+     * Is called after every write to this repository's table. Invalidates the cached query results and increases the
+     * version of the table if table versioning is enabled.
+     */
+    public void tableChanged() {
+        invalidateQueryCaches();
+        if (info.getConfig().isTableVersioning())
+            ORM.getVersionTracker().bumpLocal(connection, info.getTableName());
+    }
+
+    /**
+     * Drops all cached query results that were read from this repository's table, in the caches of all registered repositories.
+     */
+    public void invalidateQueryCaches() {
+        String tableName = info.getTableName();
+        if (queryCache != null)
+            queryCache.invalidate(tableName);
+        for (Repo<?> repo : ORM.getRepos()) {
+            if (repo != this && repo.queryCache != null)
+                repo.queryCache.invalidate(tableName);
+        }
+    }
+
     public Query<T> filter(Map<String, String> filter) {
         return query().filter(filter);
     }
@@ -93,6 +270,7 @@ public class Repo<T extends Model> {
     }
 
     public void save(T entry) {
+        checkWritable(entry);
         if (entry.doesEntryExist()) {
             update(entry);
         } else {
@@ -101,32 +279,245 @@ public class Repo<T extends Model> {
     }
 
     public void create(T entry) {
+        checkWritable(entry);
         observers.forEach(o -> o.saving(entry));
         observers.forEach(o -> o.creating(entry));
         executeCreate(entry);
         observers.forEach(o -> o.created(entry));
         observers.forEach(o -> o.saved(entry));
-        entry.updateOriginal();
+        entry.updateOriginal(info);
+        attach(entry);
+    }
+
+    /**
+     * Inserts all entries using multi-row inserts. The batches are sized to fit into the packet size and parameter limit
+     * of the connection. Generated ids are back-filled into the entries.
+     *
+     * @param entries The entries to create.
+     */
+    public void createAll(Collection<T> entries) {
+        if (entries.isEmpty())
+            return;
+        entries.forEach(this::checkWritable);
+        entries.forEach(e -> observers.forEach(o -> o.saving(e)));
+        entries.forEach(e -> observers.forEach(o -> o.creating(e)));
+        List<T> withId = new ArrayList<>();
+        List<T> withoutId = new ArrayList<>();
+        try {
+            for (T entry : entries) {
+                applyDefaults(entry);
+                if (info.isAutoIncrement() && getId(entry) == null) {
+                    withoutId.add(entry);
+                } else {
+                    withId.add(entry);
+                }
+            }
+            executeCreateAll(withId);
+            executeCreateAll(withoutId);
+        } catch (SQLException throwables) {
+            throw new ORMQueryException(throwables);
+        }
+        tableChanged();
+        for (T entry : entries) {
+            entry.setEntryExists(true);
+            observers.forEach(o -> o.created(entry));
+            observers.forEach(o -> o.saved(entry));
+            entry.updateOriginal(info);
+            attach(entry);
+        }
     }
 
-    private void executeCreate(T entry) {
+    private void executeCreateAll(List<T> entries) throws SQLException {
+        if (entries.isEmpty())
+            return;
+        boolean generatesIds = info.isAutoIncrement() && getId(entries.get(0)) == null;
+        List<Map<String, Object>> rows = new ArrayList<>(entries.size());
+        for (T entry : entries) {
+            Map<String, Object> map = SQLMapper.map(this, entry);
+            if (generatesIds)
+                map.remove(info.getIdColumn());
+            rows.add(map);
+        }
+        int offset = 0;
+        for (List<Map<String, Object>> batch : batches(rows)) {
+            SQLQueryString qs = getConnection().builder().buildInsert(info, batch);
+            List<Integer> ids = connection.insert(qs.getQuery(), qs.getParameters().toArray());
+            if (generatesIds) {
+                if (ids.size() != batch.size())
+                    throw new ORMQueryException("Expected " + batch.size() + " generated keys but received " + ids.size());
+                for (int i = 0; i < ids.size(); i++)
+                    info.getAccessor(info.getIdField()).set(entries.get(offset + i), ids.get(i));
+            }
+            offset += batch.size();
+        }
+    }
+
+    /**
+     * Inserts the entry or updates the existing row with the same primary or unique key in a single statement.
+     *
+     * @param entry The entry to upsert.
+     */
+    public void upsert(T entry) {
+        upsertAll(Collections.singletonList(entry));
+    }
+
+    /**
+     * Inserts the entries or updates the existing rows with the same primary or unique keys. The entries are sent in
+     * multi-row batches, so no SELECT is needed to decide between insert and update. The ids of entries without one are
+     * looked up by their unique keys afterwards, entries whose id can't be determined stay marked as not existing.
+     *
+     * @param entries The entries to upsert.
+     */
+    public void upsertAll(List<T> entries) {
+        if (entries.isEmpty())
+            return;
+        entries.forEach(this::checkWritable);
+        entries.forEach(e -> observers.forEach(o -> o.saving(e)));
+        List<Map<String, Object>> rows = new ArrayList<>(entries.size());
+        Timestamp now = Timestamp.from(Instant.now());
+        int generatedId = 0;
         try {
-            if (info.hasDates()) {
-                Timestamp now = Timestamp.from(Instant.now());
-                if (info.hasCreated()) {
-                    if(info.getField(info.getCreatedField()).get(entry) == null)
-                        info.getField(info.getCreatedField()).set(entry, now);
-                }
-                if (info.hasUpdated()) {
-                    if(info.getField(info.getUpdatedField()).get(entry) == null)
-                        info.getField(info.getUpdatedField()).set(entry, now);
-                }
+            for (T entry : entries) {
+                applyDefaults(entry);
+                if (info.hasUpdated())
+                    info.getAccessor(info.getUpdatedField()).set(entry, now);
+                Map<String, Object> map = SQLMapper.map(this, entry);
+                if (info.isAutoIncrement() && getId(entry) == null)
+                    map.put(info.getIdColumn(), null);
+                rows.add(map);
+            }
+            for (List<Map<String, Object>> batch : batches(rows)) {
+                SQLQueryString qs = getConnection().builder().buildUpsert(info, batch);
+                generatedId = connection.write(qs.getQuery(), qs.getParameters().toArray());
+            }
+        } catch (SQLException throwables) {
+            throw new ORMQueryException(throwables);
+        }
+        tableChanged();
+        // An upsert can hit any row with the same unique key, so the affected ids aren't known
+        if (entityCache != null)
+            entityCache.clear();
+        Set<T> unknown = Collections.newSetFromMap(new IdentityHashMap<>());
+        unknown.addAll(fillUpsertedIds(entries, generatedId));
+        for (T entry : entries) {
+            observers.forEach(o -> o.saved(entry));
+            entry.updateOriginal(info);
+            if (unknown.contains(entry))
+                continue;
+            entry.setEntryExists(true);
+            attach(entry);
+        }
+    }
+
+    /**
+     * Sets the ids of upserted entries that had none. The generated key of an upsert doesn't tell whether a row has been
+     * inserted or updated (SQLite doesn't even change it on updates), so the ids are selected by the unique keys of the
+     * entries. A single entry without any unique key value can't have hit an existing row, so the generated key is used.
+     *
+     * @return The entries whose id is still unknown.
+     */
+    private List<T> fillUpsertedIds(List<T> entries, int generatedId) {
+        List<T> missing = new ArrayList<>();
+        if (!info.isAutoIncrement())
+            return missing;
+        for (T entry : entries) {
+            if (getId(entry) == null)
+                missing.add(entry);
+        }
+        List<String> keyFields = new ArrayList<>(info.getUniqueKeys());
+        if (info.getPrimaryKey() != null && !info.getPrimaryKey().equals(info.getIdField()))
+            keyFields.add(info.getPrimaryKey());
+        if (missing.size() == 1 && entries.size() == 1 && generatedId != 0 && keyFields.stream().allMatch(f -> info.getAccessor(f).get(missing.get(0)) == null)) {
+            info.getAccessor(info.getIdField()).set(missing.get(0), generatedId);
+            return Collections.emptyList();
+        }
+        for (String field : keyFields) {
+            FieldAccessor accessor = info.getAccessor(field);
+            List<T> withKey = new ArrayList<>();
+            for (T entry : missing) {
+                if (accessor.get(entry) != null)
+                    withKey.add(entry);
+            }
+            if (withKey.isEmpty())
+                continue;
+            Map<Object, Object> ids = new HashMap<>();
+            for (List<T> chunk : chunks(withKey, 1, 0)) {
+                for (T row : query().readOnly().withDeleted().whereIn(field, chunk.stream().map(accessor::get).toArray()).all())
+                    ids.put(Helper.normalizeKey(accessor.get(row)), getId(row));
+            }
+            for (T entry : withKey) {
+                Object id = ids.get(Helper.normalizeKey(accessor.get(entry)));
+                if (id != null)
+                    info.getAccessor(info.getIdField()).set(entry, id);
+            }
+            missing.removeIf(e -> getId(e) != null);
+        }
+        return missing;
+    }
+
+    /**
+     * Splits the rows into batches which stay below the configured batch size as well as the parameter and packet size
+     * limits of the connection.
+     */
+    private List<List<Map<String, Object>>> batches(List<Map<String, Object>> rows) {
+        int columns = Math.max(rows.get(0).size(), 1);
+        int batchSize = Math.max(1, Math.min(info.getConfig().getBatchSize(), connection.getMaxParameters() / columns));
+        // Leave some room for the statement itself and the protocol overhead
+        long maxBytes = connection.getMaxPacketSize() - connection.getMaxPacketSize() / 10;
+        List<List<Map<String, Object>>> batches = new ArrayList<>();
+        int start = 0;
+        long bytes = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            long rowBytes = estimateSize(rows.get(i));
+            if (i > start && (i - start >= batchSize || bytes + rowBytes > maxBytes)) {
+                batches.add(rows.subList(start, i));
+                start = i;
+                bytes = 0;
             }
-            if (info.getIdType().equals(UUID.class)) {
-                Field field = info.getField(info.getIdField());
-                if (field.get(entry) == null)
-                    field.set(entry, UUID.randomUUID());
+            bytes += rowBytes;
+        }
+        batches.add(rows.subList(start, rows.size()));
+        return batches;
+    }
+
+    private static long estimateSize(Map<String, Object> row) {
+        long size = 0;
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            Object value = entry.getValue();
+            // Worst case of an escaped utf8mb4 string or a hex encoded binary
+            if (value instanceof String) {
+                size += ((String) value).length() * 4L + 2;
+            } else if (value instanceof byte[]) {
+                size += ((byte[]) value).length * 2L + 3;
+            } else {
+                size += 24;
+            }
+        }
+        return size;
+    }
+
+    private void applyDefaults(T entry) {
+        if (info.hasDates()) {
+            Timestamp now = Timestamp.from(Instant.now());
+            if (info.hasCreated()) {
+                if(info.getAccessor(info.getCreatedField()).get(entry) == null)
+                    info.getAccessor(info.getCreatedField()).set(entry, now);
+            }
+            if (info.hasUpdated()) {
+                if(info.getAccessor(info.getUpdatedField()).get(entry) == null)
+                    info.getAccessor(info.getUpdatedField()).set(entry, now);
             }
+        }
+        if (info.getIdType().equals(UUID.class)) {
+            FieldAccessor accessor = info.getAccessor(info.getIdField());
+            if (accessor.get(entry) == null)
+                accessor.set(entry, UUID.randomUUID());
+        }
+    }
+
+    private void executeCreate(T entry) {
+        try {
+            applyDefaults(entry);
             Map<String, Object> map = SQLMapper.map(this, entry);
             if (info.isAutoIncrement()) {
                 String idCol = info.getColumnName(info.getIdField());
@@ -135,63 +526,213 @@ public class Repo<T extends Model> {
             }
             SQLQueryString qs = getConnection().builder().buildInsert(info, map);
             int id = connection.write(qs.getQuery(), qs.getParameters().toArray());
+            tableChanged();
             if (info.isAutoIncrement())
-                info.getField(info.getIdField()).set(entry, id);
+                info.getAccessor(info.getIdField()).set(entry, id);
             entry.setEntryExists(true);
-        } catch (SQLException | IllegalAccessException throwables) {
+        } catch (SQLException throwables) {
             throw new ORMQueryException(throwables);
         }
     }
 
     public void update(T entry) {
+        checkWritable(entry);
         if(info.getConfig().shouldPreventUnnecessaryUpdates() && !entry.isDirty())
             return;
         observers.forEach(o -> o.saving(entry));
         observers.forEach(o -> o.updating(entry));
-        where(info.getIdField(), getId(entry)).update(entry);
+        List<String> dirtyFields = info.getConfig().shouldUpdateDirtyOnly() ? entry.getDirtyFields() : null;
+        if (dirtyFields != null && dirtyFields.size() > 0) {
+            where(info.getIdField(), getId(entry)).update(SQLMapper.map(this, entry, dirtyFields));
+        } else {
+            where(info.getIdField(), getId(entry)).update(entry);
+        }
         observers.forEach(o -> o.updated(entry));
         observers.forEach(o -> o.saved(entry));
-        entry.updateOriginal();
+        entry.updateOriginal(info);
+    }
+
+    /**
+     * Updates all dirty entries with chunked single statements of the form
+     * UPDATE ... SET col = CASE id WHEN ? THEN ? ... END WHERE id IN (...), covering only the changed columns.
+     *
+     * @param entries The entries to update.
+     */
+    public void updateAll(Collection<T> entries) {
+        List<T> list = new ArrayList<>();
+        Map<T, Map<String, Object>> changes = new IdentityHashMap<>();
+        Set<String> columns = new HashSet<>();
+        entries.forEach(this::checkWritable);
+        for (T entry : entries) {
+            if (info.getConfig().shouldPreventUnnecessaryUpdates() && !entry.isDirty())
+                continue;
+            list.add(entry);
+        }
+        if (list.isEmpty())
+            return;
+        list.forEach(e -> observers.forEach(o -> o.saving(e)));
+        list.forEach(e -> observers.forEach(o -> o.updating(e)));
+        for (T entry : list) {
+            Map<String, Object> values = SQLMapper.map(this, entry, entry.getDirtyFields());
+            changes.put(entry, values);
+            columns.addAll(values.keySet());
+        }
+        // The builder sets the updated timestamp with one extra parameter per statement
+        int fixedParameters = info.hasUpdated() ? 1 : 0;
+        Timestamp now = Timestamp.from(Instant.now());
+        try {
+            for (List<T> chunk : chunks(list, 1 + 2 * columns.size(), fixedParameters)) {
+                Map<String, Map<Object, Object>> values = new LinkedHashMap<>();
+                for (T entry : chunk) {
+                    Object id = getId(entry);
+                    changes.get(entry).forEach((column, value) -> values.computeIfAbsent(column, c -> new LinkedHashMap<>()).put(id, value));
+                }
+                if (values.isEmpty() && !info.hasUpdated())
+                    continue;
+                SQLQueryString qs = getConnection().builder().buildBatchUpdate(whereIn(chunk), values);
+                connection.write(qs.getQuery(), qs.getParameters().toArray());
+            }
+        } catch (SQLException throwables) {
+            throw new ORMQueryException(throwables);
+        }
+        tableChanged();
+        if (info.hasUpdated() && !columns.contains(info.getColumnName(info.getUpdatedField())))
+            list.forEach(e -> info.getAccessor(info.getUpdatedField()).set(e, now));
+        list.forEach(e -> invalidateEntity(getId(e)));
+        list.forEach(e -> observers.forEach(o -> o.updated(e)));
+        list.forEach(e -> observers.forEach(o -> o.saved(e)));
+        list.forEach(e -> e.updateOriginal(info));
     }
 
     public void delete(T entry) {
+        checkWritable(entry);
         observers.forEach(o -> o.deleting(entry));
         Timestamp timestamp = where(info.getIdField(), getId(entry)).delete();
         if (timestamp != null) {
-            try {
-                info.getField(info.getSoftDeleteField()).set(entry, timestamp);
-            } catch (IllegalAccessException e) {
-                e.printStackTrace();
-            }
+            info.getAccessor(info.getSoftDeleteField()).set(entry, timestamp);
         }
         observers.forEach(o -> o.deleted(entry));
-        entry.updateOriginal();
+        entry.updateOriginal(info);
+        detach(entry);
     }
 
     public void restore(T entry) {
+        checkWritable(entry);
         if (!info.isSoftDelete())
             return;
         observers.forEach(o -> o.restoring(entry));
         where(info.getIdField(), getId(entry)).restore();
-        try {
-            info.getField(info.getSoftDeleteField()).set(entry, null);
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
-        }
+        info.getAccessor(info.getSoftDeleteField()).set(entry, null);
         observers.forEach(o -> o.restored(entry));
     }
 
     public void finalDelete(T entry) {
+        checkWritable(entry);
         where(info.getIdField(), getId(entry)).finalDelete();
+        detach(entry);
+    }
+
+    /**
+     * Deletes all entries with chunked WHERE id IN (...) statements. Soft deletable entries are marked as deleted with a
+     * single update per chunk.
+     *
+     * @param entries The entries to delete.
+     */
+    public void deleteAll(Collection<T> entries) {
+        if (entries.isEmpty())
+            return;
+        entries.forEach(this::checkWritable);
+        List<T> list = new ArrayList<>(entries);
+        observers.forEach(o -> o.deletingAll(list));
+        for (List<T> chunk : chunks(list, 1, softDeleteParameters())) {
+            Timestamp timestamp = whereIn(chunk).delete();
+            if (timestamp != null) {
+                for (T entry : chunk)
+                    info.getAccessor(info.getSoftDeleteField()).set(entry, timestamp);
+            }
+        }
+        observers.forEach(o -> o.deletedAll(list));
+        list.forEach(e -> e.updateOriginal(info));
+        list.forEach(this::detach);
+    }
+
+    public void restoreAll(Collection<T> entries) {
+        if (!info.isSoftDelete() || entries.isEmpty())
+            return;
+        entries.forEach(this::checkWritable);
+        List<T> list = new ArrayList<>(entries);
+        observers.forEach(o -> o.restoringAll(list));
+        for (List<T> chunk : chunks(list, 1, softDeleteParameters()))
+            whereIn(chunk).restore();
+        for (T entry : list)
+            info.getAccessor(info.getSoftDeleteField()).set(entry, null);
+        observers.forEach(o -> o.restoredAll(list));
+    }
+
+    public void finalDeleteAll(Collection<T> entries) {
+        if (entries.isEmpty())
+            return;
+        entries.forEach(this::checkWritable);
+        for (List<T> chunk : chunks(new ArrayList<>(entries), 1, 0))
+            whereIn(chunk).finalDelete();
+        entries.forEach(this::detach);
+    }
+
+    private void attach(T entry) {
+        Session session = Session.current();
+        if (session != null)
+            session.attach(this, entry);
+    }
+
+    private void detach(T entry) {
+        Session session = Session.current();
+        if (session != null)
+            session.detach(this, getId(entry));
+    }
+
+    private void checkWritable(T entry) {
+        if (entry.isReadOnly())
+            throw new ORMQueryException("Entities loaded by a read-only query can't be written");
+    }
+
+    // The soft delete update binds the deleted timestamp and the updated timestamp if present
+    private int softDeleteParameters() {
+        if (!info.isSoftDelete())
+            return 0;
+        return info.hasUpdated() ? 2 : 1;
+    }
+
+    private Query<T> whereIn(List<T> entries) {
+        return query().whereIn(info.getIdField(), entries.stream().map(this::getId).toArray());
+    }
+
+    /**
+     * Splits the entries into chunks whose statements stay below the parameter limit of the connection.
+     *
+     * @param parametersPerEntry The parameters each entry adds to the statement.
+     * @param fixedParameters The parameters the statement has regardless of the amount of entries.
+     */
+    private List<List<T>> chunks(List<T> entries, int parametersPerEntry, int fixedParameters) {
+        int chunkSize = Math.max(1, Math.min(info.getConfig().getBatchSize(), (connection.getMaxParameters() - fixedParameters) / parametersPerEntry));
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i += chunkSize)
+            chunks.add(entries.subList(i, Math.min(i + chunkSize, entries.size())));
+        return chunks;
     }
 
     public T refresh(T entry) {
         where(info.getIdField(), getId(entry)).refresh(entry);
-        entry.updateOriginal();
+        entry.updateOriginal(info);
         return entry;
     }
 
     public T get(Object id) {
+        Session session = Session.current();
+        if (session != null) {
+            T known = session.get((Class<T>) info.getModelClass(), id);
+            if (known != null)
+                return known;
+        }
         return whereId(id).first();
     }
 
@@ -207,22 +748,42 @@ public class Repo<T extends Model> {
         return query().count();
     }
 
+    /**
+     * Runs a hand-written query and maps the resulting rows to models. The mapping of columns to fields is resolved on
+     * the first execution of a query string and reused afterwards.
+     *
+     * @param sql The query to run, selecting the columns of this repository's table.
+     * @param params The parameters of the query.
+     * @return The mapped models.
+     */
+    public List<T> raw(String sql, Object... params) {
+        try {
+            ResultSet rs = connection.read(sql, SQLMapper.mapParams(this, Arrays.asList(params)).toArray());
+            ColumnPlan plan = rawPlans.get(sql);
+            if (plan == null) {
+                plan = ColumnPlan.resolve(info, rs);
+                rawPlans.put(sql, plan);
+            }
+            List<T> list = SQLMapper.map(this, rs, plan, readOnly);
+            connection.close(rs);
+            return list;
+        } catch (SQLException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
     public Object getId(Object entity) {
         if (entity == null)
             return null;
-        try {
-            Object id = info.getField(info.getIdField()).get(entity);
-            if (id == null)
+        Object id = info.getAccessor(info.getIdField()).get(entity);
+        if (id == null)
+            return null;
+        if (id.getClass().equals(Integer.class)) {
+            int intId = (Integer) id;
+            if (intId == 0)
                 return null;
-            if (id.getClass().equals(Integer.class)) {
-                int intId = (Integer) id;
-                if (intId == 0)
-                    return null;
-            }
-            return id;
-        } catch (IllegalAccessException e) {
-            throw new ORMQueryException(e);
         }
+        return id;
     }
 
     public Repo<T> observe(Observer<T> observer) {
@@ -2,9 +2,8 @@ package org.javawebstack.orm;
 
 import org.javawebstack.orm.exception.ORMQueryException;
 import org.javawebstack.orm.mapper.DefaultMapper;
-import org.javawebstack.orm.mapper.TypeMapper;
+import org.javawebstack.orm.mapper.FieldCodec;
 
-import java.lang.reflect.InvocationTargetException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -15,40 +14,138 @@ import java.util.Map;
 public class SQLMapper {
 
     public static <T extends Model> Map<String, Object> map(Repo<T> repo, T entity) {
+        return map(repo, entity, repo.getInfo().getFields());
+    }
+
+    public static <T extends Model> Map<String, Object> map(Repo<T> repo, T entity, List<String> fields) {
         Map<String, Object> values = new HashMap<>();
-        for (String fieldName : repo.getInfo().getFields())
-            values.put(repo.getInfo().getColumnName(fieldName), getValue(repo, fieldName, entity));
+        for (String fieldName : fields)
+            values.put(repo.getInfo().getColumnName(fieldName), repo.getInfo().getCodec(fieldName).toSQL(repo.getInfo().getAccessor(fieldName).get(entity)));
         return values;
     }
 
     public static <T extends Model> List<T> map(Repo<T> repo, ResultSet rs, List<Class<? extends Model>> joinedModels) {
+        return map(repo, rs, joinedModels, false);
+    }
+
+    public static <T extends Model> List<T> map(Repo<T> repo, ResultSet rs, List<Class<? extends Model>> joinedModels, boolean readOnly) {
         List<T> list = new ArrayList<>();
         try {
+            ColumnPlan plan = ColumnPlan.resolve(repo.getInfo(), rs);
+            List<Repo<Model>> joinedRepos = new ArrayList<>();
+            List<ColumnPlan> joinedPlans = new ArrayList<>();
+            for (Class<? extends Model> model : joinedModels) {
+                Repo<Model> r = Repo.get((Class<Model>) model);
+                joinedRepos.add(r);
+                joinedPlans.add(ColumnPlan.resolve(r.getInfo(), rs));
+            }
             while (rs.next()) {
-                T t = (T) repo.getInfo().getModelConstructor().newInstance();
-                for (Class<? extends Model> model : joinedModels) {
-                    Repo<Model> r = Repo.get((Class<Model>) model);
-                    Model o = (Model) r.getInfo().getModelConstructor().newInstance();
-                    t.internalAddJoinedModel(model, mapBack(r, rs, o));
-                }
-                list.add(mapBack(repo, rs, t));
+                T t = hydrate(repo, rs, plan, readOnly);
+                for (int i = 0; i < joinedRepos.size(); i++)
+                    t.internalAddJoinedModel(joinedModels.get(i), hydrate(joinedRepos.get(i), rs, joinedPlans.get(i), readOnly));
+                list.add(t);
             }
-        } catch (SQLException | InstantiationException | IllegalAccessException | InvocationTargetException ex) {
+        } catch (SQLException ex) {
             throw new ORMQueryException(ex);
         }
         return list;
     }
 
-    public static <T extends Model> T mapBack(Repo<T> repo, ResultSet rs, T t) {
-        t.setEntryExists(true);
-        for (String fieldName : repo.getInfo().getFields()) {
-            Object value = getValue(rs, repo.getInfo().getType(fieldName).getJavaType(), repo.getInfo().getTableName(), repo.getInfo().getColumnName(fieldName));
-            setValue(repo, fieldName, t, value);
+    public static <T extends Model> List<T> map(Repo<T> repo, ResultSet rs, ColumnPlan plan) {
+        return map(repo, rs, plan, false);
+    }
+
+    public static <T extends Model> List<T> map(Repo<T> repo, ResultSet rs, ColumnPlan plan, boolean readOnly) {
+        List<T> list = new ArrayList<>();
+        try {
+            while (rs.next())
+                list.add(hydrate(repo, rs, plan, readOnly));
+        } catch (SQLException ex) {
+            throw new ORMQueryException(ex);
+        }
+        return list;
+    }
+
+    /**
+     * Maps the current row to a new instance. Inside of a session the instance that is already known for the row is
+     * returned instead, without mapping the row again.
+     */
+    private static <T extends Model> T hydrate(Repo<T> repo, ResultSet rs, ColumnPlan plan, boolean readOnly) {
+        Session session = readOnly ? null : Session.current();
+        if (session == null)
+            return mapBack(repo, rs, (T) repo.getInfo().newInstance(), plan, readOnly);
+        TableInfo info = repo.getInfo();
+        int idOrdinal = info.getFieldIndex(info.getIdField());
+        int idColumn = plan.getColumnIndex(idOrdinal);
+        if (idColumn != 0) {
+            T existing = (T) session.get(info.getModelClass(), info.getCodec(idOrdinal).toJava(getValue(rs, idColumn)));
+            if (existing != null)
+                return existing;
+        }
+        return session.attach(repo, mapBack(repo, rs, (T) info.newInstance(), plan, false));
+    }
+
+    public static <T extends Model> T mapBack(Repo<T> repo, ResultSet rs, T t, ColumnPlan plan) {
+        return mapBack(repo, rs, t, plan, false);
+    }
+
+    /**
+     * Sets the fields of the entity to the values of the current row. Read-only entities skip the change tracking
+     * snapshot and can't be saved.
+     */
+    public static <T extends Model> T mapBack(Repo<T> repo, ResultSet rs, T t, ColumnPlan plan, boolean readOnly) {
+        if (readOnly) {
+            t.setReadOnly(true);
+        } else {
+            t.setEntryExists(true);
+        }
+        TableInfo info = repo.getInfo();
+        for (int i = 0; i < plan.size(); i++) {
+            int columnIndex = plan.getColumnIndex(i);
+            FieldAccessor accessor = info.getAccessor(i);
+            FieldCodec codec = info.getCodec(i);
+            if (columnIndex != 0 && codec.isIdentityToJava() && readPrimitive(rs, columnIndex, info.getType(i), accessor, t))
+                continue;
+            Object value = columnIndex == 0 ? null : getValue(rs, columnIndex);
+            accessor.set(t, codec.toJava(value));
         }
-        t.updateOriginal();
+        if (!readOnly)
+            t.updateOriginal(info);
         return t;
     }
 
+    public static <T extends Model> T mapBack(Repo<T> repo, ResultSet rs, T t) {
+        try {
+            return mapBack(repo, rs, t, ColumnPlan.resolve(repo.getInfo(), rs));
+        } catch (SQLException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    /**
+     * Creates a new instance of the model with the same column values as the given one. It is used to hand out
+     * cached entities without sharing the cached instance.
+     */
+    public static <T extends Model> T copy(Repo<T> repo, T entity) {
+        return copy(repo, entity, false);
+    }
+
+    public static <T extends Model> T copy(Repo<T> repo, T entity, boolean readOnly) {
+        T copy = (T) repo.getInfo().newInstance();
+        for (int i = 0; i < repo.getInfo().getFields().size(); i++) {
+            FieldAccessor accessor = repo.getInfo().getAccessor(i);
+            accessor.set(copy, accessor.get(entity));
+        }
+        if (readOnly) {
+            copy.setReadOnly(true);
+            return copy;
+        }
+        // Read-only entities have been loaded from the database as well, they just don't track it
+        copy.setEntryExists(entity.doesEntryExist() || entity.isReadOnly());
+        copy.updateOriginal(repo.getInfo());
+        return copy;
+    }
+
     public static List<Object> mapParams(Repo<?> repo, List<Object> params) {
         List<Object> result = new ArrayList<>();
         for (Object o : params) {
@@ -56,51 +153,49 @@ public class SQLMapper {
                 result.add(null);
                 continue;
             }
-            TypeMapper mapper = repo.getInfo().getConfig().getTypeMapper(o.getClass(), 0);
-            if (mapper == null) {
-                result.add(o);
-                continue;
-            }
-            result.add(mapper.mapToSQL(o, o.getClass()));
+            result.add(repo.getInfo().getConfig().getParameterConverter(o.getClass()).apply(o));
         }
         return result;
     }
 
-    private static <T extends Model> Object getValue(Repo<T> repo, String fieldName, T entry) {
-        try {
-            Object value = repo.getInfo().getField(fieldName).get(entry);
-            for (TypeMapper mapper : repo.getInfo().getConfig().getTypeMappers())
-                value = mapper.mapToSQL(value, repo.getInfo().getField(fieldName).getType());
-            return value;
-        } catch (IllegalAccessException e) {
-            throw new ORMQueryException(e);
-        }
-    }
-
-    private static Object getValue(ResultSet rs, Class<?> sqlType, String tableName, String columnName) {
+    /**
+     * Reads int, long and double columns of primitive fields without boxing the value. Returns false if the column
+     * can't be read this way or is null, so it has to go through the regular path.
+     */
+    private static boolean readPrimitive(ResultSet rs, int columnIndex, SQLType sqlType, FieldAccessor accessor, Object entity) {
+        Class<?> type = accessor.getType();
         try {
-            try {
-                rs.findColumn(columnName);
-            } catch (SQLException ex) {
-                columnName = tableName + "." + columnName;
+            if (type == int.class && sqlType == SQLType.INT) {
+                int value = rs.getInt(columnIndex);
+                if (rs.wasNull())
+                    return false;
+                accessor.setInt(entity, value);
+                return true;
             }
-            try {
-                rs.findColumn(columnName);
-            } catch (SQLException ex) {
-                return null;
+            if (type == long.class && sqlType == SQLType.BIGINT) {
+                long value = rs.getLong(columnIndex);
+                if (rs.wasNull())
+                    return false;
+                accessor.setLong(entity, value);
+                return true;
             }
-            return rs.getObject(columnName, DefaultMapper.TYPE_MAPPING);
+            if (type == double.class && sqlType == SQLType.DOUBLE) {
+                double value = rs.getDouble(columnIndex);
+                if (rs.wasNull())
+                    return false;
+                accessor.setDouble(entity, value);
+                return true;
+            }
+            return false;
         } catch (SQLException e) {
             throw new ORMQueryException(e);
         }
     }
 
-    private static <T extends Model> void setValue(Repo<T> repo, String fieldName, T entry, Object value) {
+    private static Object getValue(ResultSet rs, int columnIndex) {
         try {
-            for (TypeMapper mapper : repo.getInfo().getConfig().getTypeMappers())
-                value = mapper.mapToJava(value, repo.getInfo().getField(fieldName).getType());
-            repo.getInfo().getField(fieldName).set(entry, value);
-        } catch (IllegalAccessException e) {
+            return rs.getObject(columnIndex, DefaultMapper.TYPE_MAPPING);
+        } catch (SQLException e) {
             throw new ORMQueryException(e);
         }
     }
@@ -0,0 +1,76 @@
+package org.javawebstack.orm;
+
+import org.javawebstack.orm.util.Helper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A session keeps a single instance per row of every entity loaded or created on the current thread while it is active
+ * (an identity map). Loading a row again returns the known instance instead of hydrating a new one. Sessions are
+ * started with ORM.session(...), nested calls join the outer session.
+ */
+public class Session {
+
+    private static final ThreadLocal<Session> CURRENT = new ThreadLocal<>();
+
+    private final Map<Class<? extends Model>, Map<Object, Model>> entities = new HashMap<>();
+
+    /**
+     * Retrieves the session of the current thread.
+     *
+     * @return The active session or null if there is none.
+     */
+    public static Session current() {
+        return CURRENT.get();
+    }
+
+    static <R> R run(Supplier<R> action) {
+        if (CURRENT.get() != null)
+            return action.get();
+        CURRENT.set(new Session());
+        try {
+            return action.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    public <T extends Model> T get(Class<T> model, Object id) {
+        if (id == null)
+            return null;
+        Map<Object, Model> byId = entities.get(model);
+        if (byId == null)
+            return null;
+        return (T) byId.get(Helper.normalizeKey(id));
+    }
+
+    /**
+     * Adds the entity to the session unless there already is an instance for the same row.
+     *
+     * @return The instance known to the session.
+     */
+    public <T extends Model> T attach(Repo<T> repo, T entity) {
+        Object id = repo.getId(entity);
+        if (id == null)
+            return entity;
+        Model existing = entities.computeIfAbsent(repo.getInfo().getModelClass(), m -> new HashMap<>()).putIfAbsent(Helper.normalizeKey(id), entity);
+        return existing != null ? (T) existing : entity;
+    }
+
+    public void detach(Repo<?> repo, Object id) {
+        Map<Object, Model> byId = entities.get(repo.getInfo().getModelClass());
+        if (byId != null && id != null)
+            byId.remove(Helper.normalizeKey(id));
+    }
+
+    public void detachAll(Repo<?> repo) {
+        entities.remove(repo.getInfo().getModelClass());
+    }
+
+    public void clear() {
+        entities.clear();
+    }
+
+}
@@ -3,12 +3,15 @@ package org.javawebstack.orm;
 import org.atteo.evo.inflector.English;
 import org.javawebstack.orm.annotation.*;
 import org.javawebstack.orm.exception.ORMConfigurationException;
+import org.javawebstack.orm.exception.ORMQueryException;
+import org.javawebstack.orm.mapper.FieldCodec;
 import org.javawebstack.orm.util.Helper;
 import org.javawebstack.orm.util.KeyType;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.util.*;
 
@@ -18,6 +21,12 @@ public class TableInfo {
     private String tableName;
     private final List<String> fieldNames = new ArrayList<>();
     private final Map<String, Field> fields = new HashMap<>();
+    private final Map<String, Integer> fieldIndices = new HashMap<>();
+    private final Map<String, FieldAccessor> accessors = new HashMap<>();
+    private final FieldAccessor[] orderedAccessors;
+    private final Map<String, FieldCodec> codecs = new HashMap<>();
+    private final FieldCodec[] orderedCodecs;
+    private final SQLType[] orderedTypes;
     private final Map<String, String> fieldToColumn = new HashMap<>();
     private final Map<String, Column> fieldConfigs = new HashMap<>();
     private final Map<String, SQLType> sqlTypes = new HashMap<>();
@@ -30,6 +39,7 @@ public class TableInfo {
     private String primaryKey;
     private final List<String> uniqueKeys = new ArrayList<>();
     private final Constructor<?> constructor;
+    private final ModelBinder<Model> binder;
     private String relationField;
     private final Map<String, String> filterable = new HashMap<>();
     private final List<String> searchable = new ArrayList<>();
@@ -59,6 +69,8 @@ public class TableInfo {
         } catch (NoSuchMethodException e) {
             throw new ORMConfigurationException("The model class has no empty constructor!");
         }
+        binder = loadBinder(model);
+        List<String> binderFields = binder != null ? binder.getFields() : Collections.emptyList();
         for (Field field : model.getDeclaredFields()) {
             if (Modifier.isStatic(field.getModifiers()))
                 continue;
@@ -74,6 +86,8 @@ public class TableInfo {
                 fieldToColumn.put(fieldName, config.isCamelToSnakeCase() ? Helper.toSnakeCase(fieldName) : fieldName);
             }
             fields.put(fieldName, field);
+            accessors.put(fieldName, new FieldAccessor(field, binder, binderFields.indexOf(fieldName)));
+            codecs.put(fieldName, new FieldCodec(config.getTypeMappers(), field.getType()));
             fieldConfigs.put(fieldName, fieldConfig);
 
             int fieldSize;
@@ -106,6 +120,11 @@ public class TableInfo {
             if (field.isAnnotationPresent(Searchable.class))
                 this.searchable.add(fieldName);
         }
+        for (int i = 0; i < fieldNames.size(); i++)
+            fieldIndices.put(fieldNames.get(i), i);
+        orderedAccessors = fieldNames.stream().map(accessors::get).toArray(FieldAccessor[]::new);
+        orderedCodecs = fieldNames.stream().map(codecs::get).toArray(FieldCodec[]::new);
+        orderedTypes = fieldNames.stream().map(sqlTypes::get).toArray(SQLType[]::new);
         if (!fields.containsKey(idField))
             idField = "uuid";
         if (!fields.containsKey(idField))
@@ -178,10 +197,54 @@ public class TableInfo {
         return fieldNames;
     }
 
+    /**
+     * Retrieves the position of a field in {@link #getFields()}.
+     *
+     * @param fieldName The name of the field.
+     * @return The position of the field or -1 if there is no such field.
+     */
+    public int getFieldIndex(String fieldName) {
+        Integer index = fieldIndices.get(fieldName);
+        return index == null ? -1 : index;
+    }
+
     public Field getField(String fieldName) {
         return fields.get(fieldName);
     }
 
+    private static ModelBinder<Model> loadBinder(Class<? extends Model> model) {
+        String name = model.getName();
+        String packageName = name.substring(0, name.lastIndexOf('.') + 1);
+        try {
+            Class<?> binderClass = Class.forName(packageName + name.substring(packageName.length()).replace('$', '_') + ModelBinder.SUFFIX, true, model.getClassLoader());
+            return (ModelBinder<Model>) binderClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            return null;
+        }
+    }
+
+    public FieldAccessor getAccessor(String fieldName) {
+        return accessors.get(fieldName);
+    }
+
+    /**
+     * Retrieves the accessor of a field by its position in {@link #getFields()}.
+     *
+     * @param ordinal The position of the field.
+     * @return The accessor of the field.
+     */
+    public FieldAccessor getAccessor(int ordinal) {
+        return orderedAccessors[ordinal];
+    }
+
+    public FieldCodec getCodec(String fieldName) {
+        return codecs.get(fieldName);
+    }
+
+    public FieldCodec getCodec(int ordinal) {
+        return orderedCodecs[ordinal];
+    }
+
     public String getMorphType() {
         return morphType;
     }
@@ -206,6 +269,10 @@ public class TableInfo {
         return sqlTypes.get(fieldName);
     }
 
+    public SQLType getType(int ordinal) {
+        return orderedTypes[ordinal];
+    }
+
     public String getTypeParameters(String fieldName) {
         return sqlTypeParameters.get(fieldName);
     }
@@ -260,6 +327,25 @@ public class TableInfo {
         return false;
     }
 
+    /**
+     * Creates a new instance of the model, through the generated ModelBinder if there is one.
+     *
+     * @return The new instance.
+     */
+    public Model newInstance() {
+        if (binder != null)
+            return binder.newInstance();
+        try {
+            return (Model) constructor.newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    public ModelBinder<Model> getBinder() {
+        return binder;
+    }
+
     public Constructor<?> getModelConstructor() {
         return constructor;
     }
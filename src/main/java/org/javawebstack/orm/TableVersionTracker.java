@@ -0,0 +1,122 @@
+package org.javawebstack.orm;
+
+import org.javawebstack.orm.exception.ORMQueryException;
+import org.javawebstack.orm.wrapper.SQL;
+import org.javawebstack.orm.wrapper.builder.SQLQueryString;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps track of the versions in the table version table, which every write through the ORM increases for the written
+ * table when table versioning is enabled. Comparing them with the versions seen on the last validation tells which
+ * tables have been written by other nodes, so the local caches of these tables can be dropped. The bumps caused by this
+ * node are counted, so they don't flush the caches as well.
+ */
+public class TableVersionTracker {
+
+    public static final String TABLE_NAME = "orm_table_versions";
+
+    private final Map<List<Object>, Long> versions = new ConcurrentHashMap<>();
+    private final Map<List<Object>, Long> localBumps = new ConcurrentHashMap<>();
+    // Bumps hold the read lock, so they can run concurrently but never between the read and the count of a validation
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public static void bump(SQL sql, String tableName) {
+        SQLQueryString qs = sql.builder().buildTableVersionBump(TABLE_NAME, tableName);
+        try {
+            sql.write(qs.getQuery(), qs.getParameters().toArray());
+        } catch (SQLException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    /**
+     * Increases the version of the table and remembers the bump as one of this node.
+     */
+    public void bumpLocal(SQL sql, String tableName) {
+        lock.readLock().lock();
+        try {
+            bump(sql, tableName);
+            localBumps.merge(key(sql, tableName), 1L, Long::sum);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the versions of the given tables with a single query.
+     *
+     * @return The versions by table name, tables that have never been written are missing.
+     */
+    public static Map<String, Long> read(SQL sql, Collection<String> tableNames) {
+        Map<String, Long> result = new HashMap<>();
+        if (tableNames.isEmpty())
+            return result;
+        String placeholders = tableNames.stream().map(t -> "?").collect(Collectors.joining(","));
+        try {
+            ResultSet rs = sql.read("SELECT `table_name`,`version` FROM `" + TABLE_NAME + "` WHERE `table_name` IN (" + placeholders + ");", tableNames.toArray());
+            while (rs.next())
+                result.put(rs.getString(1), rs.getLong(2));
+            sql.close(rs);
+        } catch (SQLException ex) {
+            throw new ORMQueryException(ex);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the current versions of all versioned tables of the given repositories (one query per connection) and
+     * invalidates the caches of every table whose version changed by more than the local bumps since the last
+     * validation. The first validation only records the versions.
+     *
+     * @param repos The repositories to validate.
+     */
+    public void validate(Collection<Repo<?>> repos) {
+        if (repos.stream().noneMatch(r -> r.getQueryCache() != null || r.getEntityCache() != null))
+            return;
+        Map<SQL, List<Repo<?>>> byConnection = new IdentityHashMap<>();
+        for (Repo<?> repo : repos) {
+            if (repo.getInfo().getConfig().isTableVersioning())
+                byConnection.computeIfAbsent(repo.getConnection(), c -> new ArrayList<>()).add(repo);
+        }
+        byConnection.forEach((sql, connectionRepos) -> {
+            List<Repo<?>> changed = new ArrayList<>();
+            lock.writeLock().lock();
+            try {
+                Map<String, Long> current = read(sql, connectionRepos.stream().map(r -> r.getInfo().getTableName()).collect(Collectors.toSet()));
+                for (Repo<?> repo : connectionRepos) {
+                    List<Object> key = key(sql, repo.getInfo().getTableName());
+                    long version = current.getOrDefault(repo.getInfo().getTableName(), 0L);
+                    Long local = localBumps.remove(key);
+                    Long previous = versions.put(key, version);
+                    if (previous != null && previous + (local != null ? local : 0) != version)
+                        changed.add(repo);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            for (Repo<?> repo : changed) {
+                repo.invalidateQueryCaches();
+                if (repo.getEntityCache() != null)
+                    repo.getEntityCache().clear();
+            }
+        });
+    }
+
+    public void reset() {
+        versions.clear();
+        localBumps.clear();
+    }
+
+    // Table names are only unique per connection
+    private static List<Object> key(SQL sql, String tableName) {
+        return Arrays.asList(sql, tableName);
+    }
+
+}
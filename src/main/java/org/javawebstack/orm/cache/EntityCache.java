@@ -0,0 +1,40 @@
+package org.javawebstack.orm.cache;
+
+import org.javawebstack.orm.Model;
+
+/**
+ * An EntityCache holds loaded entities of a single repository by their id. It can additionally map the values of unique
+ * fields to ids, so lookups by a unique key can be answered as well. The repository only stores copies in the cache
+ * and hands out copies of the cached entities. Writes through the repository invalidate the affected ids.
+ */
+public interface EntityCache {
+
+    Model get(Object id);
+
+    /**
+     * Stores the entity unless the cache has been invalidated since the generation was taken, as the entity might have
+     * been read before the write that caused the invalidation.
+     *
+     * @param generation The generation as returned by getGeneration before the entity was read.
+     */
+    void put(Object id, Model entity, long generation);
+
+    /**
+     * @return A number that changes whenever an entity is invalidated or the cache is cleared.
+     */
+    long getGeneration();
+
+    /**
+     * Retrieves the id of the entity with the given value in a unique field.
+     *
+     * @return The id or null if the key isn't known.
+     */
+    Object getId(String field, Object value);
+
+    void putKey(String field, Object value, Object id);
+
+    void invalidate(Object id);
+
+    void clear();
+
+}
@@ -0,0 +1,113 @@
+package org.javawebstack.orm.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * A thread-safe map which evicts the least recently used entry once the maximum size is reached. Entries can
+ * optionally expire after a fixed time to live.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class LRUCache<K, V> {
+
+    private final int maxSize;
+    private final long ttl;
+    private final CacheStats stats = new CacheStats();
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+    /**
+     * @param maxSize The maximum amount of entries.
+     * @param ttl The time to live of an entry in milliseconds or 0 if entries should never expire.
+     */
+    public LRUCache(int maxSize, long ttl) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() <= LRUCache.this.maxSize)
+                    return false;
+                stats.evicted();
+                return true;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        CacheEntry<V> entry = entries.get(key);
+        if (entry != null && entry.isExpired()) {
+            entries.remove(key);
+            stats.evicted();
+            entry = null;
+        }
+        if (entry == null) {
+            stats.miss();
+            return null;
+        }
+        stats.hit();
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new CacheEntry<>(value, ttl > 0 ? System.currentTimeMillis() + ttl : 0));
+    }
+
+    public synchronized void remove(K key) {
+        if (entries.remove(key) != null)
+            stats.invalidated(1);
+    }
+
+    public synchronized void removeIf(BiPredicate<K, V> predicate) {
+        long count = 0;
+        Iterator<Map.Entry<K, CacheEntry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, CacheEntry<V>> entry = iterator.next();
+            if (predicate.test(entry.getKey(), entry.getValue().value)) {
+                iterator.remove();
+                count++;
+            }
+        }
+        stats.invalidated(count);
+    }
+
+    public synchronized void clear() {
+        stats.invalidated(entries.size());
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    private static class CacheEntry<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return expiresAt != 0 && System.currentTimeMillis() > expiresAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.javawebstack.orm.cache;
+
+import org.javawebstack.orm.Model;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class LRUEntityCache implements EntityCache {
+
+    private final LRUCache<Object, Model> entities;
+    private final LRUCache<List<Object>, Object> keys;
+    private long generation;
+
+    /**
+     * @param maxSize The maximum amount of cached entities.
+     * @param ttl The time to live of an entity in milliseconds or 0 if entities should only be dropped by invalidation.
+     * @param indexKeys Whether lookups by unique fields should be cached as well.
+     */
+    public LRUEntityCache(int maxSize, long ttl, boolean indexKeys) {
+        this.entities = new LRUCache<>(maxSize, ttl);
+        this.keys = indexKeys ? new LRUCache<>(maxSize, ttl) : null;
+    }
+
+    public LRUEntityCache(int maxSize, long ttl) {
+        this(maxSize, ttl, true);
+    }
+
+    public LRUEntityCache(int maxSize) {
+        this(maxSize, 0);
+    }
+
+    public Model get(Object id) {
+        return entities.get(id);
+    }
+
+    public synchronized void put(Object id, Model entity, long generation) {
+        if (this.generation != generation)
+            return;
+        entities.put(id, entity);
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    public Object getId(String field, Object value) {
+        return keys != null ? keys.get(Arrays.asList(field, value)) : null;
+    }
+
+    public void putKey(String field, Object value, Object id) {
+        // Keys aren't invalidated, the repository checks that the entity still has the value
+        if (keys != null)
+            keys.put(Arrays.asList(field, value), id);
+    }
+
+    public synchronized void invalidate(Object id) {
+        generation++;
+        entities.remove(id);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entities.clear();
+        if (keys != null)
+            keys.clear();
+    }
+
+    public int size() {
+        return entities.size();
+    }
+
+    public CacheStats getStats() {
+        return entities.getStats();
+    }
+
+    public CacheStats getKeyStats() {
+        return keys != null ? keys.getStats() : null;
+    }
+
+}
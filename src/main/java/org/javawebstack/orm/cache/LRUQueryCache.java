@@ -0,0 +1,73 @@
+package org.javawebstack.orm.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class LRUQueryCache implements QueryCache {
+
+    private final LRUCache<Object, Result> cache;
+    private final Map<String, Long> generations = new HashMap<>();
+    private long clears;
+
+    /**
+     * @param maxSize The maximum amount of cached results.
+     * @param ttl The time to live of a result in milliseconds or 0 if results should only be dropped by invalidation.
+     */
+    public LRUQueryCache(int maxSize, long ttl) {
+        this.cache = new LRUCache<>(maxSize, ttl);
+    }
+
+    public LRUQueryCache(int maxSize) {
+        this(maxSize, 0);
+    }
+
+    public Object get(Object key) {
+        Result result = cache.get(key);
+        return result != null ? result.value : null;
+    }
+
+    public synchronized void put(Object key, Set<String> tables, Object value, long generation) {
+        if (getGeneration(tables) != generation)
+            return;
+        cache.put(key, new Result(tables, value));
+    }
+
+    public synchronized long getGeneration(Set<String> tables) {
+        long generation = clears;
+        for (String table : tables)
+            generation += generations.getOrDefault(table, 0L);
+        return generation;
+    }
+
+    public synchronized void invalidate(String table) {
+        generations.merge(table, 1L, Long::sum);
+        cache.removeIf((key, result) -> result.tables.contains(table));
+    }
+
+    public synchronized void clear() {
+        clears++;
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    private static class Result {
+
+        private final Set<String> tables;
+        private final Object value;
+
+        Result(Set<String> tables, Object value) {
+            this.tables = tables;
+            this.value = value;
+        }
+
+    }
+
+}
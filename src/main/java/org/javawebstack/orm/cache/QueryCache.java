@@ -0,0 +1,30 @@
+package org.javawebstack.orm.cache;
+
+import java.util.Set;
+
+/**
+ * A QueryCache stores query results by the rendered SQL and its parameters. Every result is tagged with the tables
+ * it was read from, so a write to one of them can drop all results that might have become stale.
+ */
+public interface QueryCache {
+
+    Object get(Object key);
+
+    /**
+     * Stores the result unless one of its tables has been invalidated since the generation was taken, as the result
+     * might have been read before the write that caused the invalidation.
+     *
+     * @param generation The generation of the tables as returned by getGeneration before the query was executed.
+     */
+    void put(Object key, Set<String> tables, Object value, long generation);
+
+    /**
+     * @return A number that changes whenever one of the given tables is invalidated or the cache is cleared.
+     */
+    long getGeneration(Set<String> tables);
+
+    void invalidate(String table);
+
+    void clear();
+
+}
@@ -10,10 +10,18 @@ public class DefaultQueryFilter implements QueryFilter {
 
     private final Map<String, String> filterable;
     private final List<String> searchable;
+    private final boolean fullText;
+    private final boolean orderByRelevance;
 
     public DefaultQueryFilter(Map<String, String> filterable, List<String> searchable) {
+        this(filterable, searchable, false, false);
+    }
+
+    public DefaultQueryFilter(Map<String, String> filterable, List<String> searchable, boolean fullText, boolean orderByRelevance) {
         this.filterable = filterable;
         this.searchable = searchable;
+        this.fullText = fullText;
+        this.orderByRelevance = orderByRelevance;
     }
 
     public void filter(Query<? extends Model> query, Map<String, String> filter) {
@@ -24,6 +32,16 @@ public class DefaultQueryFilter implements QueryFilter {
     }
 
     public void search(Query<? extends Model> query, String search) {
+        if (fullText && query.getRepo().getConnection().builder().supportsFullTextSearch()) {
+            // The search is matched in boolean mode, so the operators of user input would change its meaning
+            String terms = search.replaceAll("[+\\-\"*()~<>@]", " ").trim().replaceAll("\\s+", " ");
+            if (searchable.isEmpty() || terms.isEmpty())
+                return;
+            query.whereMatch(searchable, terms);
+            if (orderByRelevance)
+                query.orderByRelevance(searchable, terms);
+            return;
+        }
         query.and(q -> {
             searchable.forEach(key -> q.orWhere(key, "LIKE", "%" + search + "%"));
             return q;
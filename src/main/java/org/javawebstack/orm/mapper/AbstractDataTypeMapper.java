@@ -3,6 +3,8 @@ package org.javawebstack.orm.mapper;
 import org.javawebstack.abstractdata.AbstractElement;
 import org.javawebstack.orm.SQLType;
 
+import java.util.function.UnaryOperator;
+
 public class AbstractDataTypeMapper implements TypeMapper {
     public Object mapToSQL(Object source, Class<?> type) {
         if (source == null)
@@ -20,6 +22,18 @@ public class AbstractDataTypeMapper implements TypeMapper {
         return source;
     }
 
+    public UnaryOperator<Object> toSQLConverter(Class<?> type) {
+        if (!type.isInterface() && !type.isAssignableFrom(AbstractElement.class) && !AbstractElement.class.isAssignableFrom(type))
+            return IDENTITY;
+        return source -> mapToSQL(source, type);
+    }
+
+    public UnaryOperator<Object> toJavaConverter(Class<?> type) {
+        if (!AbstractElement.class.isAssignableFrom(type))
+            return IDENTITY;
+        return source -> mapToJava(source, type);
+    }
+
     public SQLType getType(Class<?> type, int size) {
         if (AbstractElement.class.isAssignableFrom(type))
             return SQLType.TEXT;
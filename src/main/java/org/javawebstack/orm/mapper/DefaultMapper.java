@@ -8,6 +8,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 public class DefaultMapper implements TypeMapper {
@@ -108,6 +109,38 @@ public class DefaultMapper implements TypeMapper {
         return source;
     }
 
+    public UnaryOperator<Object> toSQLConverter(Class<?> type) {
+        if (type.isEnum())
+            return source -> source == null ? null : ((Enum<?>) source).name();
+        if (type.equals(Boolean.class) || type.equals(boolean.class))
+            return source -> source == null ? null : Integer.valueOf(((Boolean) source) ? 1 : 0);
+        if (type.equals(char[].class))
+            return source -> source == null ? null : String.valueOf((char[]) source);
+        if (type.equals(UUID.class))
+            return source -> source == null ? null : source.toString();
+        if (type.equals(char.class))
+            return source -> source == null ? null : String.valueOf((char) source);
+        // Primitives are already boxed to their wrapper type, so there is nothing left to convert
+        return IDENTITY;
+    }
+
+    public UnaryOperator<Object> toJavaConverter(Class<?> type) {
+        if (type.isEnum())
+            return source -> source == null ? null : Enum.valueOf((Class<Enum>) type, (String) source);
+        if (type.equals(UUID.class))
+            return source -> source == null ? null : UUID.fromString((String) source);
+        if (type.equals(char[].class))
+            return source -> source == null ? null : ((String) source).toCharArray();
+        if (type.equals(char.class))
+            return source -> {
+                if (source == null)
+                    return null;
+                String stringSource = (String) source;
+                return stringSource.length() != 1 ? ' ' : stringSource.charAt(0);
+            };
+        return IDENTITY;
+    }
+
     public SQLType getType(Class<?> type, int size) {
         if (type.equals(String.class) || type.equals(char[].class))
             // Upper limit of 4294967295 exceeds the int boundaries
@@ -0,0 +1,66 @@
+package org.javawebstack.orm.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Converts the values of a single field between java and sql by composing the converters of all type mappers, which
+ * are resolved once for the field type. Mappers that don't change the type are left out entirely.
+ */
+public class FieldCodec {
+
+    private final UnaryOperator<Object> toSQL;
+    private final UnaryOperator<Object> toJava;
+
+    public FieldCodec(List<TypeMapper> mappers, Class<?> type) {
+        List<UnaryOperator<Object>> toSQL = new ArrayList<>();
+        List<UnaryOperator<Object>> toJava = new ArrayList<>();
+        for (TypeMapper mapper : mappers) {
+            toSQL.add(mapper.toSQLConverter(type));
+            toJava.add(mapper.toJavaConverter(type));
+        }
+        this.toSQL = compose(toSQL);
+        this.toJava = compose(toJava);
+    }
+
+    public Object toSQL(Object value) {
+        return toSQL.apply(value);
+    }
+
+    public Object toJava(Object value) {
+        return toJava.apply(value);
+    }
+
+    public boolean isIdentityToSQL() {
+        return toSQL == TypeMapper.IDENTITY;
+    }
+
+    public boolean isIdentityToJava() {
+        return toJava == TypeMapper.IDENTITY;
+    }
+
+    public static UnaryOperator<Object> compose(List<UnaryOperator<Object>> converters) {
+        List<UnaryOperator<Object>> chain = new ArrayList<>();
+        for (UnaryOperator<Object> converter : converters) {
+            if (converter != TypeMapper.IDENTITY)
+                chain.add(converter);
+        }
+        if (chain.isEmpty())
+            return TypeMapper.IDENTITY;
+        if (chain.size() == 1)
+            return chain.get(0);
+        if (chain.size() == 2) {
+            UnaryOperator<Object> first = chain.get(0);
+            UnaryOperator<Object> second = chain.get(1);
+            return value -> second.apply(first.apply(value));
+        }
+        UnaryOperator<Object>[] array = chain.toArray(new UnaryOperator[0]);
+        return value -> {
+            for (UnaryOperator<Object> converter : array)
+                value = converter.apply(value);
+            return value;
+        };
+    }
+
+}
@@ -2,8 +2,15 @@ package org.javawebstack.orm.mapper;
 
 import org.javawebstack.orm.SQLType;
 
+import java.util.function.UnaryOperator;
+
 public interface TypeMapper {
 
+    /**
+     * Returned by the converter methods for types a mapper doesn't change, so it can be left out of the FieldCodec.
+     */
+    UnaryOperator<Object> IDENTITY = source -> source;
+
     Object mapToSQL(Object source, Class<?> type);
 
     Object mapToJava(Object source, Class<?> type);
@@ -14,4 +21,25 @@ public interface TypeMapper {
         return null;
     }
 
+    /**
+     * Resolves the conversion of java values of the given type to sql values once. Mappers can override this to
+     * return a specialized converter or IDENTITY instead of checking the type on every call of mapToSQL.
+     *
+     * @param type The java type of the values.
+     * @return The converter, which has to behave like mapToSQL.
+     */
+    default UnaryOperator<Object> toSQLConverter(Class<?> type) {
+        return source -> mapToSQL(source, type);
+    }
+
+    /**
+     * Resolves the conversion of sql values to java values of the given type once, see toSQLConverter.
+     *
+     * @param type The java type of the values.
+     * @return The converter, which has to behave like mapToJava.
+     */
+    default UnaryOperator<Object> toJavaConverter(Class<?> type) {
+        return source -> mapToJava(source, type);
+    }
+
 }
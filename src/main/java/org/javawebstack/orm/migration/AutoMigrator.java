@@ -2,6 +2,7 @@ package org.javawebstack.orm.migration;
 
 import org.javawebstack.orm.Repo;
 import org.javawebstack.orm.TableInfo;
+import org.javawebstack.orm.TableVersionTracker;
 import org.javawebstack.orm.exception.ORMQueryException;
 import org.javawebstack.orm.wrapper.SQL;
 
@@ -9,12 +10,17 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class AutoMigrator {
 
+    private static final String FULLTEXT_INDEX_NAME = "searchable_fulltext";
+
     public static void migrate(Repo<?>... repos) {
         migrate(false, repos);
     }
@@ -28,6 +34,25 @@ public class AutoMigrator {
                 tables.put(repo.getConnection(), getTables(repo.getConnection()));
             }
             migrateTable(repo.getConnection(), repo.getInfo(), tables.get(repo.getConnection()).contains(repo.getInfo().getTableName()));
+            if (repo.getInfo().getConfig().isFullTextSearch() && repo.getInfo().getSearchable().size() > 0 && repo.getConnection().builder().supportsFullTextSearch())
+                migrateFullTextIndex(repo.getConnection(), repo.getInfo());
+        }
+        Set<SQL> versioned = new HashSet<>();
+        for (Repo<?> repo : repos) {
+            if (repo.getInfo().getConfig().isTableVersioning() && versioned.add(repo.getConnection()))
+                migrateTableVersions(repo.getConnection());
+        }
+    }
+
+    /**
+     * Creates the table holding the versions used for cache invalidation. It is never dropped, as other nodes compare
+     * against the versions they have seen before.
+     */
+    private static void migrateTableVersions(SQL sql) {
+        try {
+            sql.write("CREATE TABLE IF NOT EXISTS `" + TableVersionTracker.TABLE_NAME + "` (`table_name` VARCHAR(255) NOT NULL PRIMARY KEY,`version` BIGINT NOT NULL);");
+        } catch (SQLException throwables) {
+            throw new ORMQueryException(throwables);
         }
     }
 
@@ -124,6 +149,40 @@ public class AutoMigrator {
         }
     }
 
+    private static void migrateFullTextIndex(SQL sql, TableInfo info) {
+        Set<String> columns = info.getSearchable().stream().map(info::getColumnName).collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, Set<String>> indexes = getFullTextIndexes(sql, info.getTableName());
+        if (indexes.containsValue(columns))
+            return;
+        try {
+            if (indexes.containsKey(FULLTEXT_INDEX_NAME))
+                sql.write("ALTER TABLE `" + info.getTableName() + "` DROP INDEX `" + FULLTEXT_INDEX_NAME + "`;");
+            sql.write(new StringBuilder("ALTER TABLE `")
+                    .append(info.getTableName())
+                    .append("` ADD FULLTEXT `")
+                    .append(FULLTEXT_INDEX_NAME)
+                    .append("` (")
+                    .append(columns.stream().map(c -> "`" + c + "`").collect(Collectors.joining(",")))
+                    .append(");").toString());
+        } catch (SQLException throwables) {
+            throw new ORMQueryException(throwables);
+        }
+    }
+
+    private static Map<String, Set<String>> getFullTextIndexes(SQL sql, String tableName) {
+        try {
+            Map<String, Set<String>> indexes = new HashMap<>();
+            ResultSet rs = sql.read("SHOW INDEX FROM `" + tableName + "` WHERE `Index_type` = 'FULLTEXT';");
+            while (rs.next()) {
+                indexes.computeIfAbsent(rs.getString("Key_name"), k -> new HashSet<>()).add(rs.getString("Column_name"));
+            }
+            sql.close(rs);
+            return indexes;
+        } catch (SQLException throwables) {
+            throw new ORMQueryException(throwables);
+        }
+    }
+
     private static Map<String, String> getColumnKeys(SQL sql, String tableName) {
         try {
             Map<String, String> columnKeys = new HashMap<>();
@@ -0,0 +1,227 @@
+package org.javawebstack.orm.processor;
+
+import org.javawebstack.orm.ModelBinder;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Generates a ModelBinder ({@code <Model>_ORM}) for every model with @Column fields and writes an index of all models,
+ * which is used by ORM.register(Package) instead of scanning the classpath.
+ */
+@SupportedAnnotationTypes(ModelProcessor.COLUMN_ANNOTATION)
+public class ModelProcessor extends AbstractProcessor {
+
+    static final String COLUMN_ANNOTATION = "org.javawebstack.orm.annotation.Column";
+    private static final String MODEL_CLASS = "org.javawebstack.orm.Model";
+
+    // Ordered by their widening, a value may only be converted to the types following its own
+    private static final Map<String, String> NUMBER_TYPES = new LinkedHashMap<>();
+
+    static {
+        NUMBER_TYPES.put("java.lang.Byte", "byte");
+        NUMBER_TYPES.put("java.lang.Short", "short");
+        NUMBER_TYPES.put("java.lang.Integer", "int");
+        NUMBER_TYPES.put("java.lang.Long", "long");
+        NUMBER_TYPES.put("java.lang.Float", "float");
+        NUMBER_TYPES.put("java.lang.Double", "double");
+    }
+
+    private final Set<String> models = new TreeSet<>();
+
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        TypeElement modelElement = processingEnv.getElementUtils().getTypeElement(MODEL_CLASS);
+        if (modelElement == null)
+            return false;
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (VariableElement field : ElementFilter.fieldsIn(roundEnv.getElementsAnnotatedWith(annotation)))
+                types.add((TypeElement) field.getEnclosingElement());
+        }
+        for (TypeElement type : types) {
+            if (!isModel(type, modelElement))
+                continue;
+            models.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+            try {
+                generateBinder(type);
+            } catch (IOException ex) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Couldn't generate binder: " + ex.getMessage(), type);
+            }
+        }
+        return false;
+    }
+
+    private boolean isModel(TypeElement type, TypeElement modelElement) {
+        Set<Modifier> modifiers = type.getModifiers();
+        if (type.getKind() != ElementKind.CLASS || modifiers.contains(Modifier.ABSTRACT))
+            return false;
+        if (!processingEnv.getTypeUtils().isSubtype(processingEnv.getTypeUtils().erasure(type.asType()), modelElement.asType()))
+            return false;
+        if (type.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC))
+            return false;
+        if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS)
+            return false;
+        return true;
+    }
+
+    private boolean isAccessible(Element element) {
+        if (element.getModifiers().contains(Modifier.PRIVATE))
+            return false;
+        Element enclosing = element.getEnclosingElement();
+        return enclosing.getKind() == ElementKind.PACKAGE || isAccessible(enclosing);
+    }
+
+    private void generateBinder(TypeElement type) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)).replace('$', '_') + ModelBinder.SUFFIX;
+        String typeName = type.getQualifiedName().toString();
+        if (!isAccessible(type) || !hasAccessibleConstructor(type))
+            return;
+        List<VariableElement> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL))
+                continue;
+            if (field.getAnnotationMirrors().stream().noneMatch(a -> a.getAnnotationType().toString().equals(COLUMN_ANNOTATION)))
+                continue;
+            fields.add(field);
+        }
+
+        FileObject file = processingEnv.getFiler().createSourceFile((packageName.isEmpty() ? "" : packageName + ".") + simpleName, type);
+        try (PrintWriter out = new PrintWriter(file.openWriter())) {
+            if (!packageName.isEmpty())
+                out.println("package " + packageName + ";");
+            out.println();
+            out.println("// Generated by " + getClass().getName() + ", do not edit");
+            out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            out.println("public final class " + simpleName + " implements " + ModelBinder.class.getName() + "<" + typeName + "> {");
+            out.println();
+            StringJoiner names = new StringJoiner(", ");
+            for (VariableElement field : fields)
+                names.add("\"" + field.getSimpleName() + "\"");
+            out.println("    private static final java.util.List<String> FIELDS = java.util.Collections.unmodifiableList(java.util.Arrays.asList(" + names + "));");
+            out.println();
+            out.println("    public " + typeName + " newInstance() {");
+            out.println("        return new " + typeName + "();");
+            out.println("    }");
+            out.println();
+            out.println("    public java.util.List<String> getFields() {");
+            out.println("        return FIELDS;");
+            out.println("    }");
+            out.println();
+            out.println("    public Object get(" + typeName + " entity, int index) {");
+            out.println("        switch (index) {");
+            for (int i = 0; i < fields.size(); i++)
+                out.println("            case " + i + ": return entity." + fields.get(i).getSimpleName() + ";");
+            out.println("            default: throw new IndexOutOfBoundsException(String.valueOf(index));");
+            out.println("        }");
+            out.println("    }");
+            out.println();
+            out.println("    public void set(" + typeName + " entity, int index, Object value) {");
+            out.println("        switch (index) {");
+            for (int i = 0; i < fields.size(); i++)
+                out.println("            case " + i + ": entity." + fields.get(i).getSimpleName() + " = " + convert(fields.get(i)) + "; return;");
+            out.println("            default: throw new IndexOutOfBoundsException(String.valueOf(index));");
+            out.println("        }");
+            out.println("    }");
+            out.println();
+            if (fields.stream().anyMatch(f -> NUMBER_TYPES.containsKey(castType(f.asType())))) {
+                out.println("    private static Number number(Object value, int rank, String type, String field) {");
+                StringJoiner ranks = new StringJoiner(" : ", "", " : -1");
+                int rank = 0;
+                for (String numberType : NUMBER_TYPES.keySet())
+                    ranks.add("value instanceof " + numberType + " ? " + rank++);
+                out.println("        int valueRank = " + ranks + ";");
+                out.println("        if (valueRank == -1 || valueRank > rank)");
+                out.println("            throw new IllegalArgumentException(\"Can not set \" + type + \" field \" + field + \" to \" + (value == null ? \"null value\" : value.getClass().getName()));");
+                out.println("        return (Number) value;");
+                out.println("    }");
+                out.println();
+            }
+            out.println("}");
+        }
+    }
+
+    private boolean hasAccessibleConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty())
+                return !constructor.getModifiers().contains(Modifier.PRIVATE);
+        }
+        return false;
+    }
+
+    /**
+     * Renders the conversion of {@code value} to the type of a field. Numbers are only widened, e.g. the Integer keys
+     * generated for a long id, narrowing them throws an IllegalArgumentException like reflection does.
+     */
+    private String convert(VariableElement field) {
+        TypeMirror type = field.asType();
+        String boxed = castType(type);
+        String unboxed = NUMBER_TYPES.get(boxed);
+        if (unboxed == null)
+            return "(" + boxed + ") value";
+        String number = "number(value, " + new ArrayList<>(NUMBER_TYPES.keySet()).indexOf(boxed) + ", \"" + type + "\", \"" + field.getSimpleName() + "\")." + unboxed + "Value()";
+        if (type.getKind().isPrimitive())
+            return number;
+        return "value == null ? null : " + boxed + ".valueOf(" + number + ")";
+    }
+
+    private String castType(TypeMirror type) {
+        if (type.getKind().isPrimitive())
+            return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString();
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private void writeIndex() {
+        Set<String> entries = new TreeSet<>(models);
+        // Keep the models of previous (incremental) compilations which still exist
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ModelBinder.INDEX_RESOURCE);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.length() > 0 && processingEnv.getElementUtils().getTypeElement(line.replace('$', '.')) != null)
+                        entries.add(line);
+                }
+            }
+        } catch (IOException | IllegalArgumentException ignored) {
+        }
+        if (entries.isEmpty())
+            return;
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ModelBinder.INDEX_RESOURCE);
+            try (Writer writer = file.openWriter()) {
+                for (String entry : entries)
+                    writer.write(entry + "\n");
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Couldn't write the model index: " + ex.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+package org.javawebstack.orm.query;
+
+import org.javawebstack.orm.TableInfo;
+import org.javawebstack.orm.exception.ORMQueryException;
+import org.javawebstack.orm.mapper.DefaultMapper;
+import org.javawebstack.orm.mapper.FieldCodec;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * The ColumnarResult class holds the values of a query result column by column instead of row by row. Numeric fields
+ * are stored in primitive arrays (int[], long[] or double[]), string and enum fields are dictionary encoded, where every
+ * row holds the index of its value in the dictionary of the column. All other fields are stored as converted objects.
+ * Null values are tracked in a separate mask per column, their slot in the primitive array stays 0 (-1 for strings).
+ */
+public class ColumnarResult {
+
+    public enum Kind {
+        INT,
+        LONG,
+        DOUBLE,
+        STRING,
+        OBJECT
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final List<String> fields;
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final Kind[] kinds;
+    private final Object[] data;
+    private final String[][] dictionaries;
+    private final BitSet[] nulls;
+    private int size;
+
+    private ColumnarResult(List<String> fields, Kind[] kinds) {
+        this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
+        this.kinds = kinds;
+        this.data = new Object[fields.size()];
+        this.dictionaries = new String[fields.size()][];
+        this.nulls = new BitSet[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            positions.put(fields.get(i), i);
+            nulls[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Reads all rows of the result set. The result set is expected to contain exactly the given fields in their order.
+     */
+    static ColumnarResult read(TableInfo info, List<String> fields, ResultSet rs) throws SQLException {
+        Kind[] kinds = new Kind[fields.size()];
+        FieldCodec[] codecs = new FieldCodec[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            int ordinal = info.getFieldIndex(fields.get(i));
+            if (ordinal == -1)
+                throw new ORMQueryException("Unknown field '" + fields.get(i) + "'");
+            codecs[i] = info.getCodec(ordinal);
+            Class<?> type = info.getAccessor(ordinal).getType();
+            // Enums are stored by their name, so the raw column value can be dictionary encoded as well
+            kinds[i] = codecs[i].isIdentityToJava() || type.isEnum() ? kindOf(type) : Kind.OBJECT;
+        }
+        ColumnarResult result = new ColumnarResult(fields, kinds);
+        List<Map<String, Integer>> dictionaryIndexes = new ArrayList<>(fields.size());
+        List<List<String>> dictionaryValues = new ArrayList<>(fields.size());
+        int capacity = INITIAL_CAPACITY;
+        for (int i = 0; i < kinds.length; i++) {
+            result.data[i] = allocate(kinds[i], capacity);
+            dictionaryIndexes.add(kinds[i] == Kind.STRING ? new HashMap<>() : null);
+            dictionaryValues.add(kinds[i] == Kind.STRING ? new ArrayList<>() : null);
+        }
+        int row = 0;
+        while (rs.next()) {
+            if (row == capacity) {
+                capacity *= 2;
+                for (int i = 0; i < kinds.length; i++)
+                    result.data[i] = resize(kinds[i], result.data[i], capacity);
+            }
+            for (int i = 0; i < kinds.length; i++) {
+                int column = i + 1;
+                switch (kinds[i]) {
+                    case INT:
+                        ((int[]) result.data[i])[row] = rs.getInt(column);
+                        break;
+                    case LONG:
+                        ((long[]) result.data[i])[row] = rs.getLong(column);
+                        break;
+                    case DOUBLE:
+                        ((double[]) result.data[i])[row] = rs.getDouble(column);
+                        break;
+                    case STRING: {
+                        String value = rs.getString(column);
+                        int code = -1;
+                        if (value != null) {
+                            List<String> values = dictionaryValues.get(i);
+                            code = dictionaryIndexes.get(i).computeIfAbsent(value, v -> {
+                                values.add(v);
+                                return values.size() - 1;
+                            });
+                        }
+                        ((int[]) result.data[i])[row] = code;
+                        break;
+                    }
+                    default:
+                        ((Object[]) result.data[i])[row] = codecs[i].toJava(rs.getObject(column, DefaultMapper.TYPE_MAPPING));
+                        break;
+                }
+                if (rs.wasNull())
+                    result.nulls[i].set(row);
+            }
+            row++;
+        }
+        for (int i = 0; i < kinds.length; i++) {
+            result.data[i] = resize(kinds[i], result.data[i], row);
+            if (kinds[i] == Kind.STRING)
+                result.dictionaries[i] = dictionaryValues.get(i).toArray(new String[0]);
+        }
+        result.size = row;
+        return result;
+    }
+
+    private static Kind kindOf(Class<?> type) {
+        if (type == int.class || type == Integer.class || type == short.class || type == Short.class || type == byte.class || type == Byte.class)
+            return Kind.INT;
+        if (type == long.class || type == Long.class)
+            return Kind.LONG;
+        if (type == double.class || type == Double.class || type == float.class || type == Float.class)
+            return Kind.DOUBLE;
+        if (type == String.class || type.isEnum())
+            return Kind.STRING;
+        return Kind.OBJECT;
+    }
+
+    private static Object allocate(Kind kind, int capacity) {
+        switch (kind) {
+            case INT:
+            case STRING:
+                return new int[capacity];
+            case LONG:
+                return new long[capacity];
+            case DOUBLE:
+                return new double[capacity];
+            default:
+                return new Object[capacity];
+        }
+    }
+
+    private static Object resize(Kind kind, Object array, int length) {
+        switch (kind) {
+            case INT:
+            case STRING:
+                return Arrays.copyOf((int[]) array, length);
+            case LONG:
+                return Arrays.copyOf((long[]) array, length);
+            case DOUBLE:
+                return Arrays.copyOf((double[]) array, length);
+            default:
+                return Arrays.copyOf((Object[]) array, length);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public Kind getKind(String field) {
+        return kinds[position(field)];
+    }
+
+    public int[] getInts(String field) {
+        return (int[]) column(field, Kind.INT);
+    }
+
+    public long[] getLongs(String field) {
+        return (long[]) column(field, Kind.LONG);
+    }
+
+    public double[] getDoubles(String field) {
+        return (double[]) column(field, Kind.DOUBLE);
+    }
+
+    /**
+     * Retrieves the dictionary codes of a string column, which are indexes into {@link #getDictionary(String)}.
+     *
+     * @param field The name of the field.
+     * @return The code of every row, -1 for null.
+     */
+    public int[] getCodes(String field) {
+        return (int[]) column(field, Kind.STRING);
+    }
+
+    public String[] getDictionary(String field) {
+        column(field, Kind.STRING);
+        return dictionaries[position(field)];
+    }
+
+    /**
+     * Decodes a string column into a new array.
+     *
+     * @param field The name of the field.
+     * @return The value of every row.
+     */
+    public String[] getStrings(String field) {
+        int[] codes = getCodes(field);
+        String[] dictionary = getDictionary(field);
+        String[] values = new String[codes.length];
+        for (int i = 0; i < codes.length; i++)
+            values[i] = codes[i] == -1 ? null : dictionary[codes[i]];
+        return values;
+    }
+
+    public Object[] getObjects(String field) {
+        return (Object[]) column(field, Kind.OBJECT);
+    }
+
+    public BitSet getNulls(String field) {
+        return nulls[position(field)];
+    }
+
+    public boolean isNull(String field, int row) {
+        return nulls[position(field)].get(row);
+    }
+
+    private Object column(String field, Kind kind) {
+        int position = position(field);
+        if (kinds[position] != kind)
+            throw new ORMQueryException("The field '" + field + "' is stored as " + kinds[position] + ", not as " + kind);
+        return data[position];
+    }
+
+    private int position(String field) {
+        Integer position = positions.get(field);
+        if (position == null)
+            throw new ORMQueryException("The field '" + field + "' is not part of the result");
+        return position;
+    }
+
+}
@@ -3,6 +3,10 @@ package org.javawebstack.orm.query;
 import org.javawebstack.orm.Model;
 import org.javawebstack.orm.Repo;
 import org.javawebstack.orm.SQLMapper;
+import org.javawebstack.orm.Session;
+import org.javawebstack.orm.TableInfo;
+import org.javawebstack.orm.cache.EntityCache;
+import org.javawebstack.orm.cache.QueryCache;
 import org.javawebstack.orm.exception.ORMQueryException;
 import org.javawebstack.orm.wrapper.builder.SQLQueryString;
 
@@ -11,10 +15,15 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class Query<T extends Model> {
@@ -26,6 +35,9 @@ public class Query<T extends Model> {
     private Integer limit;
     private QueryOrderBy order;
     private boolean withDeleted = false;
+    private boolean readOnly;
+    private QueryPartition partition;
+    private QueryMatch relevanceOrder;
     private final List<QueryWith> withs = new ArrayList<>();
 
     public Query(Class<T> model) {
@@ -37,12 +49,17 @@ public class Query<T extends Model> {
         this.model = model;
         this.where = new QueryGroup<>();
         this.order = new QueryOrderBy();
+        this.readOnly = repo.isReadOnly();
     }
 
     public boolean isWithDeleted() {
         return withDeleted;
     }
 
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
     public QueryGroup<T> getWhereGroup() {
         return where;
     }
@@ -63,6 +80,14 @@ public class Query<T extends Model> {
         return order;
     }
 
+    public QueryMatch getRelevanceOrder() {
+        return relevanceOrder;
+    }
+
+    public QueryPartition getPartition() {
+        return partition;
+    }
+
     public Repo<T> getRepo() {
         return repo;
     }
@@ -278,6 +303,16 @@ public class Query<T extends Model> {
         return this;
     }
 
+    public Query<T> whereMatch(List<String> fields, String search) {
+        where.whereMatch(fields, search);
+        return this;
+    }
+
+    public Query<T> orWhereMatch(List<String> fields, String search) {
+        where.orWhereMatch(fields, search);
+        return this;
+    }
+
     public Query<T> accessible(Object accessor) {
         return repo.accessible(this, accessor);
     }
@@ -340,6 +375,45 @@ public class Query<T extends Model> {
         return this;
     }
 
+    /**
+     * Sorts the results by their full-text relevance for the given search, most relevant first. The relevance is
+     * applied before all other order by statements.
+     *
+     * @param fields The fields covered by the full-text index.
+     * @param search The search to rank the results for.
+     * @return The Query object with the relevance order added.
+     */
+    public Query<T> orderByRelevance(List<String> fields, String search) {
+        this.relevanceOrder = new QueryMatch(fields.stream().map(QueryColumn::new).collect(Collectors.toList()), search);
+        return this;
+    }
+
+    /**
+     * Limits the results to the first n rows of each group, ordered ascendingly by the given field.
+     *
+     * @param groupField The field to group the rows by.
+     * @param orderField The field to order the rows of each group by.
+     * @param n The maximum amount of rows per group.
+     * @return The Query object with the partition added.
+     */
+    public Query<T> topPerGroup(String groupField, String orderField, int n) {
+        return topPerGroup(groupField, orderField, false, n);
+    }
+
+    /**
+     * Limits the results to the first n rows of each group, for example the latest message per conversation.
+     *
+     * @param groupField The field to group the rows by.
+     * @param orderField The field to order the rows of each group by.
+     * @param desc If true the rows of each group will be ordered descendingly.
+     * @param n The maximum amount of rows per group.
+     * @return The Query object with the partition added.
+     */
+    public Query<T> topPerGroup(String groupField, String orderField, boolean desc, int n) {
+        this.partition = new QueryPartition(new QueryColumn(groupField), new QueryColumn(orderField), desc, n);
+        return this;
+    }
+
     public Query<T> limit(int offset, int limit) {
         return offset(offset).limit(limit);
     }
@@ -354,6 +428,21 @@ public class Query<T extends Model> {
         return this;
     }
 
+    /**
+     * Loads the entities without change tracking. They can't be saved, which saves the snapshot that is otherwise taken
+     * of every loaded entity.
+     *
+     * @return The query itself.
+     */
+    public Query<T> readOnly() {
+        return readOnly(true);
+    }
+
+    public Query<T> readOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+        return this;
+    }
+
     public Query<T> withDeleted() {
         withDeleted = true;
         return this;
@@ -363,6 +452,9 @@ public class Query<T extends Model> {
         SQLQueryString qs = repo.getConnection().builder().buildDelete(this);
         try {
             repo.getConnection().write(qs.getQuery(), qs.getParameters().toArray());
+            repo.tableChanged();
+            repo.invalidateEntityCache(this);
+            repo.detachDeleted(this);
         } catch (SQLException throwables) {
             throw new ORMQueryException(throwables);
         }
@@ -377,6 +469,7 @@ public class Query<T extends Model> {
         Map<String, Object> values = new HashMap<>();
         values.put(repo.getInfo().getColumnName(repo.getInfo().getSoftDeleteField()), now);
         update(values);
+        repo.detachDeleted(this);
         return now;
     }
 
@@ -392,7 +485,8 @@ public class Query<T extends Model> {
         SQLQueryString qs = repo.getConnection().builder().buildQuery(this, false);
         try {
             ResultSet rs = repo.getConnection().read(qs.getQuery(), qs.getParameters().toArray());
-            SQLMapper.mapBack(repo, rs, entity);
+            if (rs.next())
+                SQLMapper.mapBack(repo, rs, entity);
             repo.getConnection().close(rs);
             return entity;
         } catch (SQLException throwables) {
@@ -408,6 +502,66 @@ public class Query<T extends Model> {
         SQLQueryString queryString = repo.getConnection().builder().buildUpdate(this, values);
         try {
             repo.getConnection().write(queryString.getQuery(), queryString.getParameters().toArray());
+            repo.tableChanged();
+            repo.invalidateEntityCache(this);
+        } catch (SQLException throwables) {
+            throw new ORMQueryException(throwables);
+        }
+    }
+
+    /**
+     * Atomically increases the value of the given field for all matching rows in a single statement.
+     *
+     * @param field The name of the field to increase.
+     * @param delta The amount to add.
+     */
+    public void increment(String field, Number delta) {
+        update(field, QueryExpression.add(field, delta));
+    }
+
+    public void increment(String field) {
+        increment(field, 1);
+    }
+
+    /**
+     * Atomically decreases the value of the given field for all matching rows in a single statement.
+     *
+     * @param field The name of the field to decrease.
+     * @param delta The amount to subtract.
+     */
+    public void decrement(String field, Number delta) {
+        update(field, QueryExpression.subtract(field, delta));
+    }
+
+    public void decrement(String field) {
+        decrement(field, 1);
+    }
+
+    /**
+     * Updates a single field of all matching rows. The value can be a plain value, a QueryColumn or a QueryExpression.
+     *
+     * @param field The name of the field to update.
+     * @param value The new value of the field.
+     */
+    public void update(String field, Object value) {
+        Map<String, Object> values = new HashMap<>();
+        values.put(repo.getInfo().getColumnName(field), value);
+        update(values);
+    }
+
+    /**
+     * Copies the matching rows into the table of the target model with a single INSERT ... SELECT statement, so the
+     * data never leaves the database.
+     *
+     * @param target The model to insert into.
+     * @param columnMapping Maps the fields of the target model to the fields of this query's model.
+     */
+    public <M extends Model> void insertInto(Class<M> target, Map<String, String> columnMapping) {
+        Repo<M> targetRepo = Repo.get(target);
+        SQLQueryString qs = repo.getConnection().builder().buildInsertSelect(this, targetRepo.getInfo(), columnMapping);
+        try {
+            repo.getConnection().write(qs.getQuery(), qs.getParameters().toArray());
+            targetRepo.tableChanged();
         } catch (SQLException throwables) {
             throw new ORMQueryException(throwables);
         }
@@ -415,10 +569,34 @@ public class Query<T extends Model> {
 
     public List<T> all() {
         SQLQueryString qs = repo.getConnection().builder().buildQuery(this, false);
+        QueryCache cache = repo.getQueryCache();
+        Object cacheKey = cache != null ? getCacheKey(qs) : null;
+        Set<String> tables = cache != null ? getTableNames() : null;
+        long generation = cache != null ? cache.getGeneration(tables) : 0;
+        if (cache != null) {
+            List<T> cached = (List<T>) cache.get(cacheKey);
+            if (cached != null) {
+                List<T> list = new ArrayList<>(cached.size());
+                Session session = readOnly ? null : Session.current();
+                for (T entry : cached) {
+                    T known = session != null ? session.get(model, repo.getId(entry)) : null;
+                    if (known == null)
+                        known = SQLMapper.copy(repo, entry, readOnly);
+                    list.add(session != null ? session.attach(repo, known) : known);
+                }
+                return list;
+            }
+        }
         try {
             ResultSet rs = repo.getConnection().read(qs.getQuery(), qs.getParameters().toArray());
-            List<T> list = SQLMapper.map(repo, rs, new ArrayList<>());
+            List<T> list = SQLMapper.map(repo, rs, new ArrayList<>(), readOnly);
             repo.getConnection().close(rs);
+            if (cache != null) {
+                List<T> cached = new ArrayList<>(list.size());
+                for (T entry : list)
+                    cached.add(SQLMapper.copy(repo, entry));
+                cache.put(cacheKey, tables, cached, generation);
+            }
             return list;
         } catch (SQLException throwables) {
             throw new ORMQueryException(throwables);
@@ -430,24 +608,156 @@ public class Query<T extends Model> {
     }
 
     public T first() {
+        EntityCache entityCache = repo.getEntityCache();
+        boolean keyLookup = entityCache != null && isKeyLookup();
+        long generation = keyLookup ? entityCache.getGeneration() : 0;
+        if (keyLookup) {
+            T cached = repo.getCached(this);
+            if (cached != null) {
+                Session session = readOnly ? null : Session.current();
+                return session != null ? session.attach(repo, cached) : cached;
+            }
+        }
         List<T> list = limit(1).all();
         if (list.size() == 0)
             return null;
+        if (keyLookup)
+            repo.cacheEntity(list.get(0), generation);
         return list.get(0);
     }
 
+    /**
+     * Checks whether the query consists of a single "=" condition on the id or a unique field, so it can be answered
+     * by the entity cache of the repository.
+     */
+    private boolean isKeyLookup() {
+        if (withDeleted || partition != null || offset != null || relevanceOrder != null || !withs.isEmpty())
+            return false;
+        if (where.getQueryElements().size() != 1)
+            return false;
+        String field = getLookupField();
+        if (field == null)
+            return false;
+        List<Object> values = getRestrictedValues(field);
+        return values.size() == 1 && values.get(0) != null;
+    }
+
+    /**
+     * Retrieves the id or unique field the single condition of a key lookup refers to.
+     *
+     * @return The name of the field or null if it is neither the id nor unique.
+     */
+    public String getLookupField() {
+        TableInfo info = repo.getInfo();
+        List<String> keys = new ArrayList<>(info.getUniqueKeys());
+        keys.add(info.getIdField());
+        if (info.getPrimaryKey() != null)
+            keys.add(info.getPrimaryKey());
+        for (String key : keys) {
+            if (getRestrictedValues(key) != null)
+                return key;
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the values a field is restricted to by an "=" or IN condition that is combined with the other
+     * conditions by AND only, which means that all matched rows have one of these values.
+     *
+     * @param field The name of the field.
+     * @return The values or null if the query isn't restricted this way.
+     */
+    public List<Object> getRestrictedValues(String field) {
+        String column = repo.getInfo().getColumnName(field);
+        List<Object> values = null;
+        for (QueryElement element : where.getQueryElements()) {
+            if (element == QueryConjunction.OR || element == QueryConjunction.XOR)
+                return null;
+            if (values != null || !(element instanceof QueryCondition))
+                continue;
+            QueryCondition condition = (QueryCondition) element;
+            if (condition.isNot() || !(condition.getLeft() instanceof QueryColumn) || ((QueryColumn) condition.getLeft()).isRaw())
+                continue;
+            String name = ((QueryColumn) condition.getLeft()).getName();
+            if (!name.equals(field) && !name.equals(column))
+                continue;
+            Object right = condition.getRight();
+            if (right instanceof QueryColumn || right instanceof QueryExpression)
+                continue;
+            if (condition.getOperator().equals("=")) {
+                values = Collections.singletonList(right);
+            } else if (condition.getOperator().equalsIgnoreCase("IN") && right instanceof Object[]) {
+                values = Arrays.asList((Object[]) right);
+            }
+        }
+        return values;
+    }
+
     public Stream<T> stream() {
         return all().stream();
     }
 
+    /**
+     * Executes the query and returns a cursor over the resulting rows, which reads the values directly from the result
+     * set instead of mapping every row to a model. The query cache is bypassed. The returned view has to be closed.
+     *
+     * @return A RowView positioned before the first row.
+     */
+    public RowView<T> rows() {
+        SQLQueryString qs = repo.getConnection().builder().buildQuery(this, false);
+        try {
+            ResultSet rs = repo.getConnection().read(qs.getQuery(), qs.getParameters().toArray());
+            return new RowView<>(repo, rs);
+        } catch (SQLException throwables) {
+            throw new ORMQueryException(throwables);
+        }
+    }
+
+    /**
+     * Executes the query selecting only the given fields and returns the values column by column in primitive arrays
+     * or dictionary encoded strings, without creating any model. The query cache is bypassed.
+     *
+     * @param fields The fields to select.
+     * @return The columnar result.
+     */
+    public ColumnarResult columns(String... fields) {
+        List<String> fieldList = Arrays.asList(fields);
+        for (String field : fieldList) {
+            if (repo.getInfo().getFieldIndex(field) == -1)
+                throw new ORMQueryException("Unknown field '" + field + "'");
+        }
+        SQLQueryString qs = repo.getConnection().builder().buildQuery(this, fieldList);
+        try {
+            ResultSet rs = repo.getConnection().read(qs.getQuery(), qs.getParameters().toArray());
+            try {
+                return ColumnarResult.read(repo.getInfo(), fieldList, rs);
+            } finally {
+                repo.getConnection().close(rs);
+            }
+        } catch (SQLException throwables) {
+            throw new ORMQueryException(throwables);
+        }
+    }
+
     public int count() {
         SQLQueryString qs = repo.getConnection().builder().buildQuery(this, true);
+        QueryCache cache = repo.getQueryCache();
+        Object cacheKey = cache != null ? getCacheKey(qs) : null;
+        Set<String> tables = cache != null ? getTableNames() : null;
+        long generation = cache != null ? cache.getGeneration(tables) : 0;
+        if (cache != null) {
+            Integer cached = (Integer) cache.get(cacheKey);
+            if (cached != null)
+                return cached;
+        }
         try {
             ResultSet rs = repo.getConnection().read(qs.getQuery(), qs.getParameters().toArray());
             int c = 0;
             if (rs.next())
                 c = rs.getInt(1);
             repo.getConnection().close(rs);
+            if (cache != null)
+                cache.put(cacheKey, tables, c, generation);
             return c;
         } catch (SQLException throwables) {
             throw new ORMQueryException(throwables);
@@ -458,4 +768,52 @@ public class Query<T extends Model> {
         return count() > 0;
     }
 
+    /**
+     * Collects the names of all tables the query reads from, including the ones of exists-subqueries.
+     *
+     * @return The table names.
+     */
+    public Set<String> getTableNames() {
+        Set<String> tables = new HashSet<>();
+        tables.add(repo.getInfo().getTableName());
+        collectTableNames(where, tables);
+        return tables;
+    }
+
+    private static void collectTableNames(QueryGroup<?> group, Set<String> tables) {
+        for (QueryElement element : group.getQueryElements()) {
+            if (element instanceof QueryGroup) {
+                collectTableNames((QueryGroup<?>) element, tables);
+            } else if (element instanceof QueryExists) {
+                tables.addAll(((QueryExists<?>) element).getQuery().getTableNames());
+            }
+        }
+    }
+
+    /**
+     * Keys on the parameter values themselves, so parameters that only share their string form (like "1" and 1) don't
+     * share a result.
+     */
+    private static Object getCacheKey(SQLQueryString qs) {
+        return Arrays.asList(qs.getQuery(), new ArrayList<>(qs.getParameters()));
+    }
+
+    /**
+     * Asks the database how it would execute the query that all() would run.
+     *
+     * @return The execution plan of the query.
+     * @throws ORMQueryException if the plan could not be retrieved.
+     */
+    public QueryPlan explain() {
+        SQLQueryString qs = repo.getConnection().builder().buildExplain(this);
+        try {
+            ResultSet rs = repo.getConnection().read(qs.getQuery(), qs.getParameters().toArray());
+            QueryPlan plan = QueryPlan.from(rs);
+            repo.getConnection().close(rs);
+            return plan;
+        } catch (SQLException throwables) {
+            throw new ORMQueryException(throwables);
+        }
+    }
+
 }
@@ -0,0 +1,70 @@
+package org.javawebstack.orm.query;
+
+import org.javawebstack.orm.exception.ORMQueryException;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The QueryExpression class encodes an arithmetic expression on a column which can be used as a value in updates.
+ * The column is validated and the operand is always passed as a parameter, so `column` + ? is the only shape
+ * an expression can be rendered in (MySQL example).
+ */
+public class QueryExpression {
+
+    private static final List<String> VALID_OPERATORS = Arrays.asList(
+            "+",
+            "-",
+            "*",
+            "/"
+    );
+
+    private final QueryColumn column;
+    private final String operator;
+    private final Object operand;
+
+    public QueryExpression(QueryColumn column, String operator, Object operand) {
+        validateOperator(operator);
+        this.column = column;
+        this.operator = operator;
+        this.operand = operand;
+    }
+
+    public QueryExpression(String column, String operator, Object operand) {
+        this(new QueryColumn(column), operator, operand);
+    }
+
+    public QueryColumn getColumn() {
+        return column;
+    }
+
+    public String getOperator() {
+        return operator;
+    }
+
+    public Object getOperand() {
+        return operand;
+    }
+
+    public static QueryExpression add(String column, Number value) {
+        return new QueryExpression(column, "+", value);
+    }
+
+    public static QueryExpression subtract(String column, Number value) {
+        return new QueryExpression(column, "-", value);
+    }
+
+    public static QueryExpression multiply(String column, Number value) {
+        return new QueryExpression(column, "*", value);
+    }
+
+    public static QueryExpression divide(String column, Number value) {
+        return new QueryExpression(column, "/", value);
+    }
+
+    private static void validateOperator(String operator) {
+        if (!VALID_OPERATORS.contains(operator))
+            throw new ORMQueryException("The given operator '" + operator + "' is invalid or not supported in expressions");
+    }
+
+}
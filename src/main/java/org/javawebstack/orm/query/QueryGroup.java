@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Queries grouped via the QueryGroup class will be put inside parenthesis.
@@ -197,6 +198,20 @@ public class QueryGroup<T extends Model> implements QueryElement {
         return this;
     }
 
+    public QueryGroup<T> whereMatch(List<String> fields, String search) {
+        if (queryElements.size() > 0)
+            queryElements.add(QueryConjunction.AND);
+        queryElements.add(new QueryMatch(fields.stream().map(QueryColumn::new).collect(Collectors.toList()), search));
+        return this;
+    }
+
+    public QueryGroup<T> orWhereMatch(List<String> fields, String search) {
+        if (queryElements.size() > 0)
+            queryElements.add(QueryConjunction.OR);
+        queryElements.add(new QueryMatch(fields.stream().map(QueryColumn::new).collect(Collectors.toList()), search));
+        return this;
+    }
+
     public QueryGroup<T> whereIn(Object left, Object... values) {
         return where(left, "IN", values);
     }
@@ -0,0 +1,34 @@
+package org.javawebstack.orm.query;
+
+import org.javawebstack.orm.TableInfo;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The QueryMatch class encodes a full-text search over one or more columns, which is rendered as
+ * MATCH(...) AGAINST(? IN BOOLEAN MODE) in MySQL. The columns need to be covered by a FULLTEXT index.
+ */
+public class QueryMatch implements QueryElement {
+
+    private final List<QueryColumn> columns;
+    private final String search;
+
+    public QueryMatch(List<QueryColumn> columns, String search) {
+        this.columns = columns;
+        this.search = search;
+    }
+
+    public List<QueryColumn> getColumns() {
+        return columns;
+    }
+
+    public String getSearch() {
+        return search;
+    }
+
+    public String toString(TableInfo info) {
+        return "MATCH(" + columns.stream().map(c -> c.toString(info)).collect(Collectors.joining(",")) + ") AGAINST(? IN BOOLEAN MODE)";
+    }
+
+}
@@ -0,0 +1,44 @@
+package org.javawebstack.orm.query;
+
+import org.javawebstack.orm.TableInfo;
+
+/**
+ * The QueryPartition class limits the results of a query to the first rows of each group. It's rendered as a
+ * ROW_NUMBER() window over the filtered rows, so it requires MySQL 8 or MariaDB 10.2.
+ */
+public class QueryPartition {
+
+    public static final String ROW_NUMBER_COLUMN = "orm_row_number";
+
+    private final QueryColumn groupColumn;
+    private final QueryOrderByElement order;
+    private final int limit;
+
+    public QueryPartition(QueryColumn groupColumn, QueryColumn orderColumn, boolean desc, int limit) {
+        this.groupColumn = groupColumn;
+        this.order = new QueryOrderByElement(orderColumn, desc);
+        this.limit = limit;
+    }
+
+    public QueryColumn getGroupColumn() {
+        return groupColumn;
+    }
+
+    public QueryOrderByElement getOrder() {
+        return order;
+    }
+
+    /**
+     * Retrieves the maximum amount of rows per group.
+     *
+     * @return The row limit per group.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    public String toString(TableInfo info) {
+        return "ROW_NUMBER() OVER (PARTITION BY " + groupColumn.toString(info) + " ORDER BY " + order.toString(info) + ")";
+    }
+
+}
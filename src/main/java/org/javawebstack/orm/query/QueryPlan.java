@@ -0,0 +1,215 @@
+package org.javawebstack.orm.query;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The QueryPlan class is the typed result of an EXPLAIN statement. It consists of one step per table access in the
+ * order the database reported them. SQLite's EXPLAIN QUERY PLAN output is translated into the MySQL terms.
+ */
+public class QueryPlan {
+
+    private static final Pattern SQLITE_ACCESS = Pattern.compile("^(SCAN|SEARCH)(?: TABLE)? (\\S+)(?: AS \\S+)?(?: USING (?:(INTEGER PRIMARY KEY)|((?:AUTOMATIC )?(?:PARTIAL )?(?:COVERING )?INDEX)(?: ([^\\s(]\\S*))?))?");
+
+    private final List<Step> steps;
+
+    public QueryPlan(List<Step> steps) {
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Checks whether any of the accessed tables is read with a full table scan.
+     *
+     * @return True if at least one step has the access type ALL.
+     */
+    public boolean hasFullScan() {
+        return steps.stream().anyMatch(Step::isFullScan);
+    }
+
+    /**
+     * Checks whether every table access of the plan uses an index.
+     *
+     * @return True if all steps that access a table use a key.
+     */
+    public boolean usesIndex() {
+        return steps.stream().filter(s -> s.getTable() != null).allMatch(Step::usesIndex);
+    }
+
+    /**
+     * Checks whether the given index is used by at least one step of the plan.
+     *
+     * @param key The name of the index.
+     * @return True if the index is used.
+     */
+    public boolean usesIndex(String key) {
+        return steps.stream().anyMatch(s -> key.equals(s.getKey()));
+    }
+
+    public boolean usesFilesort() {
+        return steps.stream().anyMatch(Step::usesFilesort);
+    }
+
+    public boolean usesTemporary() {
+        return steps.stream().anyMatch(Step::usesTemporary);
+    }
+
+    /**
+     * Multiplies the estimated row counts of all steps, which is how the optimizer estimates the rows examined by
+     * nested loop joins.
+     *
+     * @return The estimated amount of examined rows.
+     */
+    public long getEstimatedRows() {
+        long rows = 1;
+        for (Step step : steps)
+            rows *= Math.max(step.getRows(), 1);
+        return rows;
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Step step : steps) {
+            if (sb.length() > 0)
+                sb.append('\n');
+            sb.append(step);
+        }
+        return sb.toString();
+    }
+
+    public static QueryPlan from(ResultSet rs) throws SQLException {
+        List<Step> steps = new ArrayList<>();
+        if (hasColumn(rs, "detail")) {
+            while (rs.next())
+                steps.add(fromDetail(rs.getString("detail")));
+            return new QueryPlan(steps);
+        }
+        while (rs.next()) {
+            steps.add(new Step(
+                    rs.getString("select_type"),
+                    rs.getString("table"),
+                    rs.getString("type"),
+                    rs.getString("possible_keys"),
+                    rs.getString("key"),
+                    rs.getLong("rows"),
+                    rs.getString("Extra")
+            ));
+        }
+        return new QueryPlan(steps);
+    }
+
+    private static boolean hasColumn(ResultSet rs, String column) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            if (column.equalsIgnoreCase(meta.getColumnLabel(i)))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Translates a row of SQLite's EXPLAIN QUERY PLAN, for example "SEARCH accounts USING INDEX idx (email=?)".
+     */
+    private static Step fromDetail(String detail) {
+        Matcher matcher = SQLITE_ACCESS.matcher(detail);
+        if (matcher.find()) {
+            String key = matcher.group(3) != null ? "PRIMARY" : matcher.group(5);
+            // Automatic indexes are created for the statement and have no name
+            if (key == null && matcher.group(4) != null)
+                key = "<auto>";
+            String accessType = matcher.group(1).equals("SEARCH") ? "ref" : (key != null ? "index" : "ALL");
+            return new Step("SIMPLE", matcher.group(2), accessType, key, key, 0, "");
+        }
+        if (detail.startsWith("USE TEMP B-TREE FOR ORDER BY"))
+            return new Step("SIMPLE", null, null, null, null, 0, "Using filesort");
+        if (detail.startsWith("USE TEMP B-TREE"))
+            return new Step("SIMPLE", null, null, null, null, 0, "Using temporary");
+        return new Step("SIMPLE", null, null, null, null, 0, detail);
+    }
+
+    public static class Step {
+
+        private final String selectType;
+        private final String table;
+        private final String accessType;
+        private final String possibleKeys;
+        private final String key;
+        private final long rows;
+        private final String extra;
+
+        public Step(String selectType, String table, String accessType, String possibleKeys, String key, long rows, String extra) {
+            this.selectType = selectType;
+            this.table = table;
+            this.accessType = accessType;
+            this.possibleKeys = possibleKeys;
+            this.key = key;
+            this.rows = rows;
+            this.extra = extra != null ? extra : "";
+        }
+
+        public String getSelectType() {
+            return selectType;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        /**
+         * Retrieves the join / access type as reported by the database, for example ALL, index, range, ref, eq_ref or const.
+         *
+         * @return The access type or null if no table is accessed.
+         */
+        public String getAccessType() {
+            return accessType;
+        }
+
+        public String getPossibleKeys() {
+            return possibleKeys;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public String getExtra() {
+            return extra;
+        }
+
+        public boolean isFullScan() {
+            return "ALL".equalsIgnoreCase(accessType);
+        }
+
+        public boolean usesIndex() {
+            return key != null && !isFullScan();
+        }
+
+        public boolean usesFilesort() {
+            return extra.toLowerCase(Locale.ROOT).contains("using filesort");
+        }
+
+        public boolean usesTemporary() {
+            return extra.toLowerCase(Locale.ROOT).contains("using temporary");
+        }
+
+        public String toString() {
+            return selectType + " " + table + " type=" + accessType + " key=" + key + " rows=" + rows + (extra.length() > 0 ? " (" + extra + ")" : "");
+        }
+
+    }
+
+}
@@ -0,0 +1,143 @@
+package org.javawebstack.orm.query;
+
+import org.javawebstack.orm.ColumnPlan;
+import org.javawebstack.orm.Model;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.TableInfo;
+import org.javawebstack.orm.exception.ORMQueryException;
+import org.javawebstack.orm.mapper.DefaultMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The RowView class is a cursor over the rows of a query result, which reads the values of the current row directly
+ * from the result set. No model instances are created, the same view is moved from row to row by calling next().
+ * It has to be closed after use.
+ *
+ * @param <T> The model of the queried table.
+ */
+public class RowView<T extends Model> implements AutoCloseable {
+
+    private final Repo<T> repo;
+    private final ResultSet resultSet;
+    private final ColumnPlan plan;
+    private boolean closed;
+
+    public RowView(Repo<T> repo, ResultSet resultSet) {
+        this.repo = repo;
+        this.resultSet = resultSet;
+        try {
+            this.plan = ColumnPlan.resolve(repo.getInfo(), resultSet);
+        } catch (SQLException ex) {
+            close();
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    /**
+     * Moves the view to the next row.
+     *
+     * @return False if there are no more rows.
+     */
+    public boolean next() {
+        if (closed)
+            return false;
+        try {
+            return resultSet.next();
+        } catch (SQLException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    public int getInt(String field) {
+        try {
+            return resultSet.getInt(columnIndex(field));
+        } catch (SQLException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    public long getLong(String field) {
+        try {
+            return resultSet.getLong(columnIndex(field));
+        } catch (SQLException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    public double getDouble(String field) {
+        try {
+            return resultSet.getDouble(columnIndex(field));
+        } catch (SQLException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    public boolean getBoolean(String field) {
+        try {
+            return resultSet.getBoolean(columnIndex(field));
+        } catch (SQLException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    public String getString(String field) {
+        try {
+            return resultSet.getString(columnIndex(field));
+        } catch (SQLException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    /**
+     * Reads the value of a field converted to the java type of the field, like it would be set on the model.
+     *
+     * @param field The name of the field.
+     * @return The converted value.
+     */
+    public <V> V get(String field) {
+        int ordinal = ordinal(field);
+        try {
+            Object value = resultSet.getObject(plan.getColumnIndex(ordinal), DefaultMapper.TYPE_MAPPING);
+            return (V) repo.getInfo().getCodec(ordinal).toJava(value);
+        } catch (SQLException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    /**
+     * Checks whether the last value read by one of the primitive getters was null.
+     *
+     * @return True if the value was null.
+     */
+    public boolean wasNull() {
+        try {
+            return resultSet.wasNull();
+        } catch (SQLException ex) {
+            throw new ORMQueryException(ex);
+        }
+    }
+
+    private int ordinal(String field) {
+        TableInfo info = repo.getInfo();
+        int ordinal = info.getFieldIndex(field);
+        if (ordinal == -1)
+            throw new ORMQueryException("Unknown field '" + field + "'");
+        if (plan.getColumnIndex(ordinal) == 0)
+            throw new ORMQueryException("The field '" + field + "' is not part of the result");
+        return ordinal;
+    }
+
+    private int columnIndex(String field) {
+        return plan.getColumnIndex(ordinal(field));
+    }
+
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        repo.getConnection().close(resultSet);
+    }
+
+}
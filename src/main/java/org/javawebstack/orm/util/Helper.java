@@ -21,4 +21,14 @@ public class Helper {
         return Character.toLowerCase(source.charAt(0)) + source.substring(1);
     }
 
+    /**
+     * Normalizes ids and key values for lookups, so an Integer read from the database and a Long passed by the caller
+     * end up on the same key.
+     */
+    public static Object normalizeKey(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte)
+            return ((Number) value).longValue();
+        return value;
+    }
+
 }
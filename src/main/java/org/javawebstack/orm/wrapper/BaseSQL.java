@@ -14,27 +14,36 @@ public abstract class BaseSQL implements SQL {
     public abstract Connection getConnection();
 
     public int write(String queryString, Object... parameters) throws SQLException {
-        loggers.forEach(l -> l.log(queryString, parameters));
-        Connection connection = getConnection();
         if (queryString.toLowerCase(Locale.ROOT).startsWith("insert")) {
-            PreparedStatement ps = setParams(connection.prepareStatement(queryString, Statement.RETURN_GENERATED_KEYS), parameters);
-            ps.executeUpdate();
-            ResultSet rs = ps.getGeneratedKeys();
-            int id = 0;
-            if (rs.next()) {
-                id = rs.getInt(1);
-            }
-            rs.close();
-            ps.close();
-            return id;
+            List<Integer> keys = insert(queryString, parameters);
+            return keys.isEmpty() ? 0 : keys.get(0);
         } else {
-            PreparedStatement ps = setParams(connection.prepareStatement(queryString), parameters);
+            loggers.forEach(l -> l.log(queryString, parameters));
+            PreparedStatement ps = setParams(getConnection().prepareStatement(queryString), parameters);
             ps.executeUpdate();
             ps.close();
         }
         return 0;
     }
 
+    public List<Integer> insert(String queryString, Object... parameters) throws SQLException {
+        loggers.forEach(l -> l.log(queryString, parameters));
+        PreparedStatement ps = setParams(getConnection().prepareStatement(queryString, Statement.RETURN_GENERATED_KEYS), parameters);
+        int rows = ps.executeUpdate();
+        List<Integer> keys = generatedKeys(ps, rows);
+        ps.close();
+        return keys;
+    }
+
+    protected List<Integer> generatedKeys(PreparedStatement ps, int rows) throws SQLException {
+        ResultSet rs = ps.getGeneratedKeys();
+        List<Integer> keys = new ArrayList<>();
+        while (rs.next())
+            keys.add(rs.getInt(1));
+        rs.close();
+        return keys;
+    }
+
     public ResultSet read(String queryString, Object... parameters) throws SQLException {
         loggers.forEach(l -> l.log(queryString, parameters));
         Connection connection = getConnection();
@@ -6,6 +6,7 @@ import org.javawebstack.orm.wrapper.builder.QueryStringBuilder;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 
 public class MySQL extends BaseSQL {
@@ -18,6 +19,7 @@ public class MySQL extends BaseSQL {
     private final String password;
     private final long timeout;
     private long lastQuery = 0;
+    private long maxPacketSize = 0;
 
     public MySQL(String host, int port, String database, String username, String password) {
         this(host, port, database, username, password, 60);
@@ -67,6 +69,22 @@ public class MySQL extends BaseSQL {
         return c;
     }
 
+    public long getMaxPacketSize() {
+        if (maxPacketSize == 0) {
+            try {
+                ResultSet rs = read("SELECT @@max_allowed_packet;");
+                if (rs.next())
+                    maxPacketSize = rs.getLong(1);
+                close(rs);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            if (maxPacketSize == 0)
+                maxPacketSize = super.getMaxPacketSize();
+        }
+        return maxPacketSize;
+    }
+
     public QueryStringBuilder builder() {
         return MySQLQueryStringBuilder.INSTANCE;
     }
@@ -5,6 +5,7 @@ import org.javawebstack.orm.wrapper.builder.QueryStringBuilder;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 public interface SQL {
 
@@ -14,10 +15,38 @@ public interface SQL {
 
     int write(String queryString, Object... parameters) throws SQLException;
 
+    /**
+     * Executes an insert statement and retrieves all keys generated by it, in the order of the inserted rows.
+     *
+     * @param queryString The insert statement.
+     * @param parameters The parameters of the statement.
+     * @return The generated keys.
+     * @throws SQLException if the statement fails.
+     */
+    List<Integer> insert(String queryString, Object... parameters) throws SQLException;
+
     void close(ResultSet resultSet);
 
     QueryStringBuilder builder();
 
+    /**
+     * Retrieves the maximum amount of parameters a single statement may have.
+     *
+     * @return The parameter limit of the database.
+     */
+    default int getMaxParameters() {
+        return 65535;
+    }
+
+    /**
+     * Retrieves the maximum size of a single statement in bytes.
+     *
+     * @return The packet size limit of the database.
+     */
+    default long getMaxPacketSize() {
+        return 4194304;
+    }
+
     void addQueryLogger(QueryLogger logger);
 
     void removeQueryLogger(QueryLogger logger);
@@ -1,11 +1,14 @@
 package org.javawebstack.orm.wrapper;
 
-import org.javawebstack.orm.wrapper.builder.MySQLQueryStringBuilder;
 import org.javawebstack.orm.wrapper.builder.QueryStringBuilder;
+import org.javawebstack.orm.wrapper.builder.SQLiteQueryStringBuilder;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class SQLite extends BaseSQL {
 
@@ -38,8 +41,27 @@ public class SQLite extends BaseSQL {
         return c;
     }
 
+    public int getMaxParameters() {
+        return 999;
+    }
+
     public QueryStringBuilder builder() {
-        return MySQLQueryStringBuilder.INSTANCE; // TODO Build a custom one for SQLite
+        return SQLiteQueryStringBuilder.INSTANCE;
+    }
+
+    /**
+     * SQLite only reports the last inserted rowid, even for multi-row inserts. The rows of a single statement receive
+     * consecutive rowids as writes are serialized, so the keys of the other rows are derived from it.
+     */
+    protected List<Integer> generatedKeys(PreparedStatement ps, int rows) throws SQLException {
+        List<Integer> keys = super.generatedKeys(ps, rows);
+        if (keys.size() != 1 || rows <= 1)
+            return keys;
+        int last = keys.get(0);
+        List<Integer> derived = new ArrayList<>(rows);
+        for (int i = rows - 1; i >= 0; i--)
+            derived.add(last - i);
+        return derived;
     }
 
 
@@ -3,6 +3,7 @@ package org.javawebstack.orm.wrapper.builder;
 import org.javawebstack.orm.Repo;
 import org.javawebstack.orm.SQLMapper;
 import org.javawebstack.orm.TableInfo;
+import org.javawebstack.orm.exception.ORMQueryException;
 import org.javawebstack.orm.query.*;
 
 import java.sql.Timestamp;
@@ -34,14 +35,128 @@ public class MySQLQueryStringBuilder implements QueryStringBuilder {
         return new SQLQueryString(sb.toString(), params);
     }
 
+    public SQLQueryString buildInsert(TableInfo info, List<Map<String, Object>> rows) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        appendInsertValues(sb, params, info, new ArrayList<>(rows.get(0).keySet()), rows);
+        sb.append(';');
+        return new SQLQueryString(sb.toString(), params);
+    }
+
+    public SQLQueryString buildUpsert(TableInfo info, List<Map<String, Object>> rows) {
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        List<Object> params = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        appendInsertValues(sb, params, info, columns, rows);
+        sb.append(" ON DUPLICATE KEY UPDATE ");
+        List<String> sets = new ArrayList<>();
+        for (String column : getUpsertUpdateColumns(info, columns))
+            sets.add("`" + column + "`=VALUES(`" + column + "`)");
+        if (info.isAutoIncrement()) {
+            // Makes the generated key of the statement point to the existing row if it has been updated
+            sets.add("`" + info.getIdColumn() + "`=LAST_INSERT_ID(`" + info.getIdColumn() + "`)");
+        } else if (sets.isEmpty()) {
+            sets.add("`" + columns.get(0) + "`=`" + columns.get(0) + "`");
+        }
+        sb.append(String.join(",", sets));
+        sb.append(';');
+        return new SQLQueryString(sb.toString(), params);
+    }
+
+    protected void appendInsertValues(StringBuilder sb, List<Object> params, TableInfo info, List<String> columns, List<Map<String, Object>> rows) {
+        sb.append("INSERT INTO `")
+                .append(info.getTableName())
+                .append("` (")
+                .append(columns.stream().map(c -> "`" + c + "`").collect(Collectors.joining(",")))
+                .append(") VALUES ");
+        String placeholders = columns.stream().map(c -> "?").collect(Collectors.joining(",", "(", ")"));
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append(placeholders);
+            for (String column : columns)
+                params.add(rows.get(i).get(column));
+        }
+    }
+
+    /**
+     * Retrieves the columns which should be overwritten if an upsert hits an existing row. Key columns and the
+     * creation date are kept.
+     */
+    protected List<String> getUpsertUpdateColumns(TableInfo info, List<String> columns) {
+        List<String> keep = new ArrayList<>();
+        if (info.getPrimaryKey() != null)
+            keep.add(info.getColumnName(info.getPrimaryKey()));
+        keep.add(info.getIdColumn());
+        if (info.hasCreated())
+            keep.add(info.getColumnName(info.getCreatedField()));
+        return columns.stream().filter(c -> !keep.contains(c)).collect(Collectors.toList());
+    }
+
     public SQLQueryString buildQuery(Query<?> query, boolean count) {
-        Repo<?> repo = query.getRepo();
+        return buildSelect(query, count ? "COUNT(*)" : "*", new ArrayList<>());
+    }
+
+    public SQLQueryString buildQuery(Query<?> query, List<String> fields) {
+        TableInfo info = query.getRepo().getInfo();
+        return buildSelect(query, fields.stream().map(f -> new QueryColumn(f).toString(info)).collect(Collectors.joining(",")), new ArrayList<>());
+    }
+
+    public SQLQueryString buildExplain(Query<?> query) {
+        SQLQueryString qs = buildQuery(query, false);
+        return new SQLQueryString("EXPLAIN " + qs.getQuery(), qs.getParameters());
+    }
+
+    public SQLQueryString buildInsertSelect(Query<?> query, TableInfo target, Map<String, String> columnMapping) {
+        TableInfo source = query.getRepo().getInfo();
+        List<String> columns = new ArrayList<>();
+        List<String> selection = new ArrayList<>();
         List<Object> parameters = new ArrayList<>();
+        columnMapping.forEach((targetField, sourceField) -> {
+            columns.add("`" + target.getColumnName(targetField) + "`");
+            selection.add(new QueryColumn(sourceField).toString(source));
+        });
+        // UUID ids are generated in Java for single inserts, so they have to be generated by the database here
+        if (target.getIdType().equals(UUID.class) && !columnMapping.containsKey(target.getIdField())) {
+            columns.add("`" + target.getIdColumn() + "`");
+            selection.add(buildUUIDExpression());
+        }
+        if (target.hasDates()) {
+            Timestamp now = Timestamp.from(Instant.now());
+            for (String dateField : Arrays.asList(target.getCreatedField(), target.getUpdatedField())) {
+                if (!columnMapping.containsKey(dateField) && target.getFields().contains(dateField)) {
+                    columns.add("`" + target.getColumnName(dateField) + "`");
+                    selection.add("?");
+                    parameters.add(now);
+                }
+            }
+        }
+        SQLQueryString select = buildSelect(query, String.join(",", selection), parameters);
+        return new SQLQueryString("INSERT INTO `" + target.getTableName() + "` (" + String.join(",", columns) + ") " + select.getQuery() + ";", select.getParameters());
+    }
+
+    public boolean supportsFullTextSearch() {
+        return true;
+    }
+
+    protected String buildUUIDExpression() {
+        return "UUID()";
+    }
+
+    protected SQLQueryString buildSelect(Query<?> query, String selection, List<Object> selectionParameters) {
+        Repo<?> repo = query.getRepo();
+        List<Object> parameters = new ArrayList<>(selectionParameters);
+        String tableName = repo.getInfo().getTableName();
+        QueryPartition partition = query.getPartition();
         StringBuilder sb = new StringBuilder("SELECT ")
-                .append(count ? "COUNT(*)" : "*")
-                .append(" FROM `")
-                .append(repo.getInfo().getTableName())
-                .append('`');
+                .append(selection)
+                .append(" FROM ");
+        if (partition != null) {
+            sb.append("(SELECT `").append(tableName).append("`.*, ")
+                    .append(partition.toString(repo.getInfo()))
+                    .append(" AS `").append(QueryPartition.ROW_NUMBER_COLUMN).append("` FROM ");
+        }
+        sb.append('`').append(tableName).append('`');
         QueryGroup<?> where = query.getWhereGroup();
         checkWithDeleted(repo, query.isWithDeleted(), where);
         if (!where.getQueryElements().isEmpty()) {
@@ -49,12 +164,24 @@ public class MySQLQueryStringBuilder implements QueryStringBuilder {
             sb.append(" WHERE ").append(qs.getQuery());
             parameters.addAll(qs.getParameters());
         }
+        if (partition != null) {
+            // The derived table takes the name of the original table, so column references stay valid
+            sb.append(") AS `").append(tableName).append("` WHERE `").append(QueryPartition.ROW_NUMBER_COLUMN).append("` <= ?");
+            parameters.add(partition.getLimit());
+        }
 
+        QueryMatch relevanceOrder = query.getRelevanceOrder();
         QueryOrderBy orderBy = query.getOrder();
-        if (!orderBy.isEmpty()) {
-            sb.append(" ORDER BY ")
-                .append(orderBy.toString(repo.getInfo()));
+        if (relevanceOrder != null || !orderBy.isEmpty())
+            sb.append(" ORDER BY ");
+        if (relevanceOrder != null) {
+            sb.append(relevanceOrder.toString(repo.getInfo())).append(" DESC");
+            parameters.add(relevanceOrder.getSearch());
+            if (!orderBy.isEmpty())
+                sb.append(',');
         }
+        if (!orderBy.isEmpty())
+            sb.append(orderBy.toString(repo.getInfo()));
 
         Integer offset = query.getOffset();
         Integer limit = query.getLimit();
@@ -72,14 +199,23 @@ public class MySQLQueryStringBuilder implements QueryStringBuilder {
     }
 
     public SQLQueryString buildUpdate(Query<?> query, Map<String, Object> values) {
+        checkNoPartition(query);
         Repo<?> repo = query.getRepo();
         if (repo.getInfo().hasUpdated())
             values.put(repo.getInfo().getColumnName(repo.getInfo().getUpdatedField()), Timestamp.from(Instant.now()));
         List<Object> parameters = new ArrayList<>();
         List<String> sets = new ArrayList<>();
         values.forEach((key, value) -> {
-            sets.add("`" + key + "`=?");
-            parameters.add(value);
+            if (value instanceof QueryExpression) {
+                QueryExpression expression = (QueryExpression) value;
+                sets.add("`" + key + "`=" + expression.getColumn().toString(repo.getInfo()) + " " + expression.getOperator() + " ?");
+                parameters.add(expression.getOperand());
+            } else if (value instanceof QueryColumn) {
+                sets.add("`" + key + "`=" + ((QueryColumn) value).toString(repo.getInfo()));
+            } else {
+                sets.add("`" + key + "`=?");
+                parameters.add(value);
+            }
         });
         StringBuilder sb = new StringBuilder("UPDATE `")
                 .append(repo.getInfo().getTableName())
@@ -96,7 +232,42 @@ public class MySQLQueryStringBuilder implements QueryStringBuilder {
         return new SQLQueryString(sb.toString(), SQLMapper.mapParams(repo, parameters).toArray());
     }
 
+    public SQLQueryString buildBatchUpdate(Query<?> query, Map<String, Map<Object, Object>> values) {
+        Repo<?> repo = query.getRepo();
+        TableInfo info = repo.getInfo();
+        List<Object> parameters = new ArrayList<>();
+        List<String> sets = new ArrayList<>();
+        values.forEach((column, cases) -> {
+            StringBuilder sb = new StringBuilder("`").append(column).append("`=CASE `").append(info.getIdColumn()).append('`');
+            cases.forEach((id, value) -> {
+                sb.append(" WHEN ? THEN ?");
+                parameters.add(id);
+                parameters.add(value);
+            });
+            sb.append(" ELSE `").append(column).append("` END");
+            sets.add(sb.toString());
+        });
+        if (info.hasUpdated() && !values.containsKey(info.getColumnName(info.getUpdatedField()))) {
+            sets.add("`" + info.getColumnName(info.getUpdatedField()) + "`=?");
+            parameters.add(Timestamp.from(Instant.now()));
+        }
+        StringBuilder sb = new StringBuilder("UPDATE `")
+                .append(info.getTableName())
+                .append("` SET ")
+                .append(String.join(",", sets));
+        QueryGroup<?> where = query.getWhereGroup();
+        checkWithDeleted(repo, query.isWithDeleted(), where);
+        if (!where.getQueryElements().isEmpty()) {
+            SQLQueryString qs = convertGroup(info, where);
+            sb.append(" WHERE ").append(qs.getQuery());
+            parameters.addAll(qs.getParameters());
+        }
+        sb.append(';');
+        return new SQLQueryString(sb.toString(), SQLMapper.mapParams(repo, parameters));
+    }
+
     public SQLQueryString buildDelete(Query<?> query) {
+        checkNoPartition(query);
         Repo<?> repo = query.getRepo();
         QueryGroup<?> where = query.getWhereGroup();
         List<Object> parameters = new ArrayList<>();
@@ -111,6 +282,16 @@ public class MySQLQueryStringBuilder implements QueryStringBuilder {
         return new SQLQueryString(sb.toString(), SQLMapper.mapParams(repo, parameters));
     }
 
+    public SQLQueryString buildTableVersionBump(String versionTable, String tableName) {
+        return new SQLQueryString("INSERT INTO `" + versionTable + "` (`table_name`,`version`) VALUES (?,1) ON DUPLICATE KEY UPDATE `version`=`version`+1;", Collections.singletonList(tableName));
+    }
+
+    // The partition is only applied to selects, writes would hit all matching rows instead of the top rows per group
+    private void checkNoPartition(Query<?> query) {
+        if (query.getPartition() != null)
+            throw new ORMQueryException("topPerGroup is only supported for selects");
+    }
+
     private void checkWithDeleted(Repo<?> repo, boolean withDeleted, QueryGroup<?> where) {
         if (repo.getInfo().isSoftDelete() && !withDeleted) {
             if (!where.getQueryElements().isEmpty())
@@ -131,6 +312,10 @@ public class MySQLQueryStringBuilder implements QueryStringBuilder {
         }
         if(element instanceof QueryGroup)
             return convertGroup(info, (QueryGroup<?>) element);
+        if(element instanceof QueryMatch) {
+            QueryMatch match = (QueryMatch) element;
+            return new SQLQueryString(match.toString(info), match.getSearch());
+        }
         return null;
     }
 
@@ -3,13 +3,22 @@ package org.javawebstack.orm.wrapper.builder;
 import org.javawebstack.orm.TableInfo;
 import org.javawebstack.orm.query.*;
 
+import java.util.List;
 import java.util.Map;
 
 public interface QueryStringBuilder {
 
     SQLQueryString buildInsert(TableInfo info, Map<String, Object> values);
+    SQLQueryString buildInsert(TableInfo info, List<Map<String, Object>> rows);
+    SQLQueryString buildUpsert(TableInfo info, List<Map<String, Object>> rows);
     SQLQueryString buildQuery(Query<?> query, boolean count);
+    SQLQueryString buildQuery(Query<?> query, List<String> fields);
+    SQLQueryString buildExplain(Query<?> query);
+    SQLQueryString buildInsertSelect(Query<?> query, TableInfo target, Map<String, String> columnMapping);
     SQLQueryString buildUpdate(Query<?> query, Map<String, Object> values);
+    SQLQueryString buildBatchUpdate(Query<?> query, Map<String, Map<Object, Object>> values);
     SQLQueryString buildDelete(Query<?> query);
+    SQLQueryString buildTableVersionBump(String versionTable, String tableName);
+    boolean supportsFullTextSearch();
 
 }
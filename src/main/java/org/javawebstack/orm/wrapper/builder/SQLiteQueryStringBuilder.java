@@ -0,0 +1,68 @@
+package org.javawebstack.orm.wrapper.builder;
+
+import org.javawebstack.orm.TableInfo;
+import org.javawebstack.orm.exception.ORMQueryException;
+import org.javawebstack.orm.query.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class SQLiteQueryStringBuilder extends MySQLQueryStringBuilder {
+
+    public static final SQLiteQueryStringBuilder INSTANCE = new SQLiteQueryStringBuilder();
+
+    /**
+     * Emits one ON CONFLICT clause per key that can conflict (requires SQLite 3.35). The primary key is only targeted
+     * when the rows carry an id, as rows without one can only collide on a unique key.
+     */
+    public SQLQueryString buildUpsert(TableInfo info, List<Map<String, Object>> rows) {
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        List<String> conflictColumns = new ArrayList<>();
+        if (info.getPrimaryKey() != null) {
+            String primaryColumn = info.getColumnName(info.getPrimaryKey());
+            if (rows.stream().anyMatch(r -> r.get(primaryColumn) != null))
+                conflictColumns.add(primaryColumn);
+        }
+        for (String uniqueKey : info.getUniqueKeys())
+            conflictColumns.add(info.getColumnName(uniqueKey));
+        if (conflictColumns.isEmpty()) {
+            if (info.getPrimaryKey() == null)
+                throw new ORMQueryException("Upserts require a primary or unique key on '" + info.getTableName() + "'");
+            conflictColumns.add(info.getColumnName(info.getPrimaryKey()));
+        }
+        List<Object> params = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        appendInsertValues(sb, params, info, columns, rows);
+        List<String> sets = new ArrayList<>();
+        for (String column : getUpsertUpdateColumns(info, columns))
+            sets.add("`" + column + "`=excluded.`" + column + "`");
+        String action = sets.isEmpty() ? "DO NOTHING" : "DO UPDATE SET " + String.join(",", sets);
+        for (String conflictColumn : conflictColumns)
+            sb.append(" ON CONFLICT (`").append(conflictColumn).append("`) ").append(action);
+        sb.append(';');
+        return new SQLQueryString(sb.toString(), params);
+    }
+
+    // MATCH ... AGAINST and FULLTEXT indexes are MySQL only, searches fall back to LIKE
+    public boolean supportsFullTextSearch() {
+        return false;
+    }
+
+    // Plain EXPLAIN returns the bytecode of the statement in SQLite
+    public SQLQueryString buildExplain(Query<?> query) {
+        SQLQueryString qs = buildQuery(query, false);
+        return new SQLQueryString("EXPLAIN QUERY PLAN " + qs.getQuery(), qs.getParameters());
+    }
+
+    // SQLite has no UUID function, so a random version 4 UUID is assembled from random bytes
+    protected String buildUUIDExpression() {
+        return "(lower(hex(randomblob(4))) || '-' || lower(hex(randomblob(2))) || '-4' || substr(lower(hex(randomblob(2))),2) || '-' || substr('89ab',abs(random()) % 4 + 1,1) || substr(lower(hex(randomblob(2))),2) || '-' || lower(hex(randomblob(6))))";
+    }
+
+    public SQLQueryString buildTableVersionBump(String versionTable, String tableName) {
+        return new SQLQueryString("INSERT INTO `" + versionTable + "` (`table_name`,`version`) VALUES (?,1) ON CONFLICT (`table_name`) DO UPDATE SET `version`=`version`+1;", Collections.singletonList(tableName));
+    }
+
+}
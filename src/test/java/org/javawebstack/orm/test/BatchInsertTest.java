@@ -0,0 +1,55 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.Observer;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.exception.ORMConfigurationException;
+import org.javawebstack.orm.test.shared.models.JustString;
+import org.javawebstack.orm.wrapper.QueryLogger;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchInsertTest extends ORMTestCase {
+
+    @Test
+    public void testCreateAllBackFillsIds() throws ORMConfigurationException {
+        int[] inserts = new int[1];
+        int[] created = new int[1];
+        QueryLogger logger = (query, parameters) -> {
+            if(query.startsWith("INSERT"))
+                inserts[0]++;
+        };
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig().setBatchSize(4));
+        ORM.autoMigrate();
+        repo.observe(new Observer<JustString>() {
+            public void created(JustString model) {
+                created[0]++;
+            }
+        });
+
+        List<JustString> entries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            JustString entry = new JustString();
+            entry.setString("Entry " + i);
+            entries.add(entry);
+        }
+        sql().addQueryLogger(logger);
+        repo.createAll(entries);
+        sql().removeQueryLogger(logger);
+
+        assertEquals(3, inserts[0]);
+        assertEquals(10, created[0]);
+        assertEquals(10, repo.count());
+        for (JustString entry : entries) {
+            assertNotEquals(0, entry.getId());
+            assertEquals(entry.getString(), repo.get(entry.getId()).getString());
+            assertFalse(entry.isDirty());
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.Model;
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.Observer;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.annotation.Column;
+import org.javawebstack.orm.annotation.SoftDelete;
+import org.javawebstack.orm.exception.ORMConfigurationException;
+import org.javawebstack.orm.wrapper.QueryLogger;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkDeleteTest extends ORMTestCase {
+
+    @Test
+    public void testDeleteAndRestoreAll() throws ORMConfigurationException {
+        Repo<Entry> repo = ORM.register(Entry.class, sql(), new ORMConfig().setBatchSize(3));
+        ORM.autoMigrate(true);
+        int[] batches = new int[1];
+        int[] deleted = new int[1];
+        repo.observe(new Observer<Entry>() {
+            public void deletingAll(List<Entry> models) {
+                batches[0]++;
+            }
+            public void deleted(Entry model) {
+                deleted[0]++;
+            }
+        });
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 7; i++)
+            entries.add(new Entry());
+        repo.createAll(entries);
+
+        int[] updates = new int[1];
+        QueryLogger logger = (query, parameters) -> {
+            if(query.startsWith("UPDATE"))
+                updates[0]++;
+        };
+        sql().addQueryLogger(logger);
+        repo.deleteAll(entries.subList(0, 5));
+        sql().removeQueryLogger(logger);
+
+        assertEquals(2, updates[0]);
+        assertEquals(1, batches[0]);
+        assertEquals(5, deleted[0]);
+        assertNotNull(entries.get(0).deletedAt);
+        assertEquals(2, repo.count());
+        assertEquals(7, repo.query().withDeleted().count());
+
+        repo.restoreAll(entries.subList(0, 5));
+        assertNull(entries.get(0).deletedAt);
+        assertEquals(7, repo.count());
+
+        repo.finalDeleteAll(entries);
+        assertEquals(0, repo.query().withDeleted().count());
+    }
+
+    @SoftDelete
+    public static class Entry extends Model {
+        @Column
+        int id;
+        @Column
+        Timestamp deletedAt;
+    }
+
+}
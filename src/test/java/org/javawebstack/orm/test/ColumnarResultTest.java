@@ -0,0 +1,80 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.Model;
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.annotation.Column;
+import org.javawebstack.orm.exception.ORMConfigurationException;
+import org.javawebstack.orm.exception.ORMQueryException;
+import org.javawebstack.orm.query.ColumnarResult;
+import org.javawebstack.orm.wrapper.QueryLogger;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarResultTest extends ORMTestCase {
+
+    @Test
+    public void testColumnsAreFilledFromTheResult() throws ORMConfigurationException {
+        Repo<Sale> repo = ORM.register(Sale.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        String[] regions = {"north", "south", "north", null, "south"};
+        for (int i = 0; i < regions.length; i++) {
+            Sale sale = new Sale();
+            sale.region = regions[i];
+            sale.quantity = i + 1;
+            sale.revenue = (i + 1) * 1000000000L;
+            sale.price = i == 2 ? null : 1.5 * i;
+            sale.save();
+        }
+
+        List<String> queries = new ArrayList<>();
+        QueryLogger logger = (query, parameters) -> queries.add(query);
+        sql().addQueryLogger(logger);
+        ColumnarResult result = repo.query().order("id").columns("quantity", "revenue", "price", "region");
+        sql().removeQueryLogger(logger);
+        assertEquals(1, queries.size());
+        assertTrue(queries.get(0).startsWith("SELECT `quantity`,`revenue`,`price`,`region` FROM"));
+
+        assertEquals(5, result.size());
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, result.getInts("quantity"));
+        assertArrayEquals(new long[]{1000000000L, 2000000000L, 3000000000L, 4000000000L, 5000000000L}, result.getLongs("revenue"));
+        assertEquals(ColumnarResult.Kind.DOUBLE, result.getKind("price"));
+        assertEquals(4.5, result.getDoubles("price")[3]);
+        assertTrue(result.isNull("price", 2));
+        assertFalse(result.isNull("price", 1));
+
+        assertEquals(2, result.getDictionary("region").length);
+        int[] codes = result.getCodes("region");
+        assertEquals(codes[0], codes[2]);
+        assertEquals(-1, codes[3]);
+        assertTrue(result.isNull("region", 3));
+        assertArrayEquals(regions, result.getStrings("region"));
+        assertThrows(ORMQueryException.class, () -> result.getLongs("quantity"));
+    }
+
+    @Test
+    public void testUnknownFieldThrows() throws ORMConfigurationException {
+        Repo<Sale> repo = ORM.register(Sale.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        assertThrows(ORMQueryException.class, () -> repo.query().columns("quantity", "unknown"));
+    }
+
+    public static class Sale extends Model {
+        @Column
+        int id;
+        @Column
+        String region;
+        @Column
+        int quantity;
+        @Column
+        long revenue;
+        @Column
+        Double price;
+    }
+
+}
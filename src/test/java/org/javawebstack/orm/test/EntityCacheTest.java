@@ -0,0 +1,94 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.Model;
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.annotation.Column;
+import org.javawebstack.orm.cache.LRUEntityCache;
+import org.javawebstack.orm.exception.ORMConfigurationException;
+import org.javawebstack.orm.util.KeyType;
+import org.javawebstack.orm.wrapper.QueryLogger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityCacheTest extends ORMTestCase {
+
+    @Test
+    public void testLookupsByIdAndUniqueKeyAreCached() throws ORMConfigurationException {
+        int[] selects = new int[1];
+        QueryLogger logger = (query, parameters) -> {
+            if(query.startsWith("SELECT"))
+                selects[0]++;
+        };
+        Repo<Account> repo = ORM.register(Account.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        LRUEntityCache cache = new LRUEntityCache(100);
+        repo.setEntityCache(cache);
+        Account account = new Account();
+        account.email = "test@example.com";
+        account.name = "Test";
+        account.save();
+
+        sql().addQueryLogger(logger);
+        Account first = repo.get(account.id);
+        Account second = repo.get((long) account.id);
+        Account byEmail = repo.where("email", "test@example.com").first();
+        sql().removeQueryLogger(logger);
+
+        assertEquals(1, selects[0]);
+        assertNotSame(first, second);
+        assertEquals("Test", second.name);
+        assertEquals(account.id, byEmail.id);
+        assertFalse(byEmail.isDirty());
+        assertEquals(2, cache.getStats().getHits());
+    }
+
+    @Test
+    public void testWritesInvalidateCachedEntities() throws ORMConfigurationException {
+        Repo<Account> repo = ORM.register(Account.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        repo.setEntityCache(new LRUEntityCache(100));
+        Account account = new Account();
+        account.email = "test@example.com";
+        account.name = "Test";
+        account.save();
+
+        Account loaded = repo.where("email", "test@example.com").first();
+        loaded.email = "changed@example.com";
+        loaded.save();
+        assertNull(repo.where("email", "test@example.com").first());
+        assertEquals("changed@example.com", repo.get(account.id).email);
+
+        repo.where("name", "Test").update("name", "Bulk");
+        assertEquals("Bulk", repo.get(account.id).name);
+
+        repo.get(account.id).delete();
+        assertNull(repo.get(account.id));
+    }
+
+    @Test
+    public void testEntitiesReadBeforeAnInvalidationAreNotStored() {
+        LRUEntityCache cache = new LRUEntityCache(100);
+        Account account = new Account();
+        long generation = cache.getGeneration();
+        // A write invalidates the entity while it is still being read
+        cache.invalidate(1);
+        cache.put(1, account, generation);
+        assertNull(cache.get(1));
+
+        cache.put(1, account, cache.getGeneration());
+        assertSame(account, cache.get(1));
+    }
+
+    public static class Account extends Model {
+        @Column
+        int id;
+        @Column(key = KeyType.UNIQUE)
+        String email;
+        @Column
+        String name;
+    }
+
+}
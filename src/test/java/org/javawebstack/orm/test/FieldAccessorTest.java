@@ -0,0 +1,102 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.FieldAccessor;
+import org.javawebstack.orm.Model;
+import org.javawebstack.orm.TableInfo;
+import org.javawebstack.orm.annotation.Column;
+import org.javawebstack.orm.test.shared.models.JustString;
+import org.junit.jupiter.api.Test;
+
+import static org.javawebstack.orm.test.shared.setup.ModelSetup.setUpModel;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldAccessorTest {
+
+    @Test
+    void testAccessorsFollowFieldOrder() {
+        TableInfo info = setUpModel(Item.class).getInfo();
+        Item item = new Item();
+        for (int i = 0; i < info.getFields().size(); i++)
+            assertSame(info.getAccessor(info.getFields().get(i)), info.getAccessor(i));
+
+        info.getAccessor("id").set(item, 42);
+        info.getAccessor("name").set(item, "Test");
+        assertEquals(42, item.id);
+        assertEquals("Test", info.getAccessor("name").get(item));
+        assertEquals(42, info.getAccessor("id").get(item));
+    }
+
+    @Test
+    void testFinalFieldsCanBeRead() {
+        TableInfo info = setUpModel(Item.class).getInfo();
+        FieldAccessor accessor = info.getAccessor("code");
+        Item item = new Item();
+        assertEquals("default", accessor.get(item));
+        assertEquals(String.class, accessor.getType());
+    }
+
+    @Test
+    void testGeneratedBinderIsUsed() {
+        TableInfo info = setUpModel(JustString.class).getInfo();
+        assertNotNull(info.getBinder());
+        assertEquals(info.getFields().size(), info.getBinder().getFields().size());
+
+        JustString entry = (JustString) info.newInstance();
+        info.getAccessor("string").set(entry, "Test");
+        assertEquals("Test", entry.getString());
+        assertThrows(IllegalArgumentException.class, () -> info.getAccessor("id").set(entry, null));
+    }
+
+    @Test
+    void testGeneratedBinderWidensNumbers() {
+        TableInfo info = setUpModel(Counter.class).getInfo();
+        assertNotNull(info.getBinder());
+        Counter counter = (Counter) info.newInstance();
+        // Generated keys are written as Integer
+        info.getAccessor("id").set(counter, 5);
+        info.getAccessor("ratio").set(counter, 2);
+        info.getAccessor("total").set(counter, 7);
+        assertEquals(5L, counter.id);
+        assertEquals(2.0, counter.ratio);
+        assertEquals(Long.valueOf(7), counter.total);
+        info.getAccessor("total").set(counter, null);
+        assertNull(counter.total);
+    }
+
+    @Test
+    void testGeneratedBinderRejectsNarrowingNumbers() {
+        TableInfo info = setUpModel(Counter.class).getInfo();
+        assertNotNull(info.getBinder());
+        Counter counter = (Counter) info.newInstance();
+        // A BIGINT column mapped to an int field is read as Long
+        assertThrows(IllegalArgumentException.class, () -> info.getAccessor("hits").set(counter, 5000000000L));
+        assertThrows(IllegalArgumentException.class, () -> info.getAccessor("total").set(counter, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> info.getAccessor("hits").set(counter, null));
+        assertThrows(IllegalArgumentException.class, () -> info.getAccessor("hits").set(counter, "5"));
+        assertEquals(0, counter.hits);
+        assertNull(counter.total);
+        info.getAccessor("hits").set(counter, (short) 3);
+        assertEquals(3, counter.hits);
+    }
+
+    public static class Counter extends Model {
+        @Column
+        long id;
+        @Column
+        int hits;
+        @Column
+        double ratio;
+        @Column
+        Long total;
+    }
+
+    public static class Item extends Model {
+        @Column
+        private int id;
+        @Column
+        private String name;
+        @Column
+        private final String code = "default";
+    }
+
+}
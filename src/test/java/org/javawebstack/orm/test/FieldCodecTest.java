@@ -0,0 +1,82 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.mapper.DefaultMapper;
+import org.javawebstack.orm.mapper.FieldCodec;
+import org.javawebstack.orm.mapper.TypeMapper;
+import org.javawebstack.orm.test.shared.models.Datatype;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldCodecTest {
+
+    @Test
+    void testConvertersMatchDefaultMapper() {
+        DefaultMapper mapper = new DefaultMapper();
+        Object[][] values = {
+                {Datatype.OptionEnum.class, Datatype.OptionEnum.OPTION1, "OPTION1"},
+                {boolean.class, true, 1},
+                {Boolean.class, false, 0},
+                {char[].class, new char[]{'a', 'b'}, "ab"},
+                {UUID.class, UUID.fromString("6b1f2f5e-9a0a-4b4c-9a33-0e4f3b8a1e2d"), "6b1f2f5e-9a0a-4b4c-9a33-0e4f3b8a1e2d"},
+                {char.class, 'c', "c"},
+                {int.class, 5, 5},
+                {String.class, "Test", "Test"}
+        };
+        for (Object[] value : values) {
+            Class<?> type = (Class<?>) value[0];
+            FieldCodec codec = new FieldCodec(Collections.singletonList(mapper), type);
+            assertEquals(mapper.mapToSQL(value[1], type), codec.toSQL(value[1]));
+            assertEquals(value[2], codec.toSQL(value[1]));
+            assertNull(codec.toSQL(null));
+            assertNull(codec.toJava(null));
+            if (!type.equals(boolean.class) && !type.equals(Boolean.class)) {
+                Object back = codec.toJava(value[2]);
+                if (type.equals(char[].class))
+                    assertArrayEquals((char[]) value[1], (char[]) back);
+                else
+                    assertEquals(value[1], back);
+            }
+        }
+    }
+
+    @Test
+    void testUnchangedTypesAreIdentity() {
+        FieldCodec codec = new FieldCodec(Collections.singletonList(new DefaultMapper()), Timestamp.class);
+        assertTrue(codec.isIdentityToSQL());
+        assertTrue(codec.isIdentityToJava());
+        assertFalse(new FieldCodec(Collections.singletonList(new DefaultMapper()), UUID.class).isIdentityToJava());
+    }
+
+    @Test
+    void testMappersAreComposedInOrder() {
+        TypeMapper suffix = new TypeMapper() {
+            public Object mapToSQL(Object source, Class<?> type) {
+                return source + "!";
+            }
+            public Object mapToJava(Object source, Class<?> type) {
+                return source;
+            }
+            public org.javawebstack.orm.SQLType getType(Class<?> type, int size) {
+                return null;
+            }
+        };
+        FieldCodec codec = new FieldCodec(Arrays.asList(new DefaultMapper(), suffix), char.class);
+        assertEquals("c!", codec.toSQL('c'));
+    }
+
+    @Test
+    void testParameterConvertersAreCachedPerType() {
+        ORMConfig config = new ORMConfig();
+        assertSame(config.getParameterConverter(UUID.class), config.getParameterConverter(UUID.class));
+        assertSame(TypeMapper.IDENTITY, config.getParameterConverter(Integer.class));
+        assertEquals(1, config.getParameterConverter(Boolean.class).apply(true));
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.Model;
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.annotation.Column;
+import org.javawebstack.orm.annotation.Searchable;
+import org.javawebstack.orm.exception.ORMConfigurationException;
+import org.javawebstack.orm.query.Query;
+import org.javawebstack.orm.wrapper.builder.SQLQueryString;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FullTextSearchTest extends ORMTestCase {
+
+    @Test
+    public void testSearchUsesMatchAgainst() throws ORMConfigurationException {
+        Repo<Product> repo = ORM.register(Product.class, sql(), new ORMConfig().setFullTextSearch(true).setOrderSearchByRelevance(true));
+        Query<Product> query = repo.search("keyboard").order("id");
+        SQLQueryString qs = repo.getConnection().builder().buildQuery(query, false);
+
+        assertEquals("SELECT * FROM `products` WHERE (MATCH(`name`,`description`) AGAINST(? IN BOOLEAN MODE)) ORDER BY MATCH(`name`,`description`) AGAINST(? IN BOOLEAN MODE) DESC,`id`", qs.getQuery());
+        assertEquals(2, qs.getParameters().size());
+        assertEquals("keyboard", qs.getParameters().get(1));
+    }
+
+    @Test
+    public void testSearchStripsBooleanOperators() throws ORMConfigurationException {
+        Repo<Product> repo = ORM.register(Product.class, sql(), new ORMConfig().setFullTextSearch(true));
+        SQLQueryString qs = repo.getConnection().builder().buildQuery(repo.search("+keyboard -\"mouse\" (pad*) ~stand <a> @2"), false);
+        assertEquals("keyboard mouse pad stand a 2", qs.getParameters().get(0));
+
+        qs = repo.getConnection().builder().buildQuery(repo.search("+-*"), false);
+        assertEquals("SELECT * FROM `products`", qs.getQuery());
+    }
+
+    @Test
+    public void testAutoMigrateCreatesFullTextIndex() throws ORMConfigurationException, SQLException {
+        Repo<Product> repo = ORM.register(Product.class, sql(), new ORMConfig().setFullTextSearch(true).setOrderSearchByRelevance(true));
+        ORM.autoMigrate(true);
+        ORM.autoMigrate();
+        assertEquals(2, countFullTextColumns());
+
+        create("Mechanical keyboard", "A keyboard with mechanical switches");
+        create("Wireless mouse", "Works with any keyboard");
+        create("Monitor stand", "Made of aluminium");
+
+        List<Product> results = repo.search("keyboard").all();
+        assertEquals(2, results.size());
+        assertEquals("Mechanical keyboard", results.get(0).name);
+        assertEquals(0, repo.search("printer").count());
+    }
+
+    private int countFullTextColumns() throws SQLException {
+        ResultSet rs = sql().read("SHOW INDEX FROM `products` WHERE `Index_type` = 'FULLTEXT';");
+        int columns = 0;
+        while (rs.next())
+            columns++;
+        sql().close(rs);
+        return columns;
+    }
+
+    private void create(String name, String description) {
+        Product product = new Product();
+        product.name = name;
+        product.description = description;
+        product.save();
+    }
+
+    public static class Product extends Model {
+        @Column
+        int id;
+        @Searchable
+        @Column
+        String name;
+        @Searchable
+        @Column
+        String description;
+    }
+
+}
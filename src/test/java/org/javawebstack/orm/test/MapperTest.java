@@ -0,0 +1,80 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.Model;
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.annotation.Column;
+import org.javawebstack.orm.exception.ORMConfigurationException;
+import org.javawebstack.orm.test.shared.models.JustString;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MapperTest extends ORMTestCase {
+
+    @Test
+    public void testRefreshReadsCurrentRow() throws ORMConfigurationException, SQLException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        JustString entry = new JustString();
+        entry.setString("Before");
+        entry.save();
+
+        sql().write("UPDATE `just_strings` SET `string` = ? WHERE `id` = ?;", "After", entry.getId());
+        repo.refresh(entry);
+        assertEquals("After", entry.getString());
+        assertFalse(entry.isDirty());
+    }
+
+    @Test
+    public void testOwnTableColumnsArePreferred() throws ORMConfigurationException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        for (int i = 0; i < 2; i++) {
+            JustString entry = new JustString();
+            entry.setString("Entry " + i);
+            entry.save();
+        }
+
+        List<JustString> entries = repo.raw("SELECT `other`.`id`, `other`.`string`, `just_strings`.* FROM `just_strings` JOIN `just_strings` AS `other` ON `other`.`id` != `just_strings`.`id` ORDER BY `just_strings`.`id`");
+        assertEquals(2, entries.size());
+        assertEquals(1, entries.get(0).getId());
+        assertEquals("Entry 0", entries.get(0).getString());
+    }
+
+    @Test
+    public void testPrimitiveColumnsAreReadBack() throws ORMConfigurationException {
+        Repo<Metric> repo = ORM.register(Metric.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        Metric metric = new Metric();
+        metric.count = 42;
+        metric.total = 9000000000L;
+        metric.average = 0.25;
+        metric.save();
+
+        Metric loaded = repo.get(metric.id);
+        assertEquals(42, loaded.count);
+        assertEquals(9000000000L, loaded.total);
+        assertEquals(0.25, loaded.average);
+        assertNull(loaded.optional);
+        assertFalse(loaded.isDirty());
+    }
+
+    public static class Metric extends Model {
+        @Column
+        int id;
+        @Column
+        int count;
+        @Column
+        long total;
+        @Column
+        double average;
+        @Column
+        Integer optional;
+    }
+
+}
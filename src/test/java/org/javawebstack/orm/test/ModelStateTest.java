@@ -0,0 +1,48 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.Model;
+import org.javawebstack.orm.annotation.Column;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.javawebstack.orm.test.shared.setup.ModelSetup.setUpModel;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelStateTest {
+
+    @Test
+    void testNewInstancesAreComparedAgainstTypeDefaults() {
+        setUpModel(Counter.class);
+        Counter counter = new Counter();
+        assertEquals(Arrays.asList("label"), counter.getDirtyFields());
+        assertEquals(Integer.valueOf(0), counter.getOriginalValue("count"));
+        assertNull(counter.getOriginalValue("label"));
+
+        counter.count = 3;
+        assertTrue(counter.isDirty("count"));
+        assertFalse(counter.isDirty("id"));
+        assertEquals(0, counter.getOriginalValues().get("count"));
+    }
+
+    @Test
+    void testInternalStateIsCreatedOnDemand() {
+        setUpModel(Counter.class);
+        Counter counter = new Counter();
+        assertNull(counter.getExtraField("missing"));
+        assertFalse(counter.hasJoined(Counter.class));
+        assertNull(counter.getJoined(Counter.class));
+        counter.getExtraFields().put("extra", 1);
+        assertEquals(Integer.valueOf(1), counter.getExtraField("extra"));
+    }
+
+    public static class Counter extends Model {
+        @Column
+        int id;
+        @Column
+        int count;
+        @Column
+        String label = "initial";
+    }
+
+}
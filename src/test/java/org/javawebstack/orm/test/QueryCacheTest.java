@@ -0,0 +1,111 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.cache.LRUQueryCache;
+import org.javawebstack.orm.exception.ORMConfigurationException;
+import org.javawebstack.orm.test.shared.models.JustString;
+import org.javawebstack.orm.wrapper.QueryLogger;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryCacheTest extends ORMTestCase {
+
+    @Test
+    public void testRepeatedQueriesAreServedFromCache() throws ORMConfigurationException {
+        int[] selects = new int[1];
+        QueryLogger logger = (query, parameters) -> {
+            if(query.startsWith("SELECT"))
+                selects[0]++;
+        };
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig());
+        ORM.autoMigrate();
+        LRUQueryCache cache = new LRUQueryCache(100);
+        repo.setQueryCache(cache);
+        JustString model = new JustString();
+        model.setString("Test");
+        model.save();
+
+        sql().addQueryLogger(logger);
+        assertEquals("Test", repo.where("string", "Test").first().getString());
+        assertEquals("Test", repo.where("string", "Test").first().getString());
+        assertEquals(1, repo.count());
+        assertEquals(1, repo.count());
+        sql().removeQueryLogger(logger);
+
+        assertEquals(2, selects[0]);
+        assertEquals(2, cache.getStats().getHits());
+    }
+
+    @Test
+    public void testWritesInvalidateCachedResults() throws ORMConfigurationException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig());
+        ORM.autoMigrate();
+        repo.setQueryCache(new LRUQueryCache(100));
+        JustString model = new JustString();
+        model.setString("Test");
+        model.save();
+
+        assertEquals(1, repo.count());
+        new JustString().save();
+        assertEquals(2, repo.count());
+
+        JustString cached = repo.where("string", "Test").first();
+        cached.setString("Changed");
+        cached.save();
+        assertNull(repo.where("string", "Test").first());
+        assertEquals("Changed", repo.get(cached.getId()).getString());
+    }
+
+    @Test
+    public void testCachedEntitiesAreNotShared() throws ORMConfigurationException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig());
+        ORM.autoMigrate();
+        repo.setQueryCache(new LRUQueryCache(100));
+        JustString model = new JustString();
+        model.setString("Test");
+        model.save();
+
+        JustString first = repo.get(model.getId());
+        first.setString("Local change");
+        JustString second = repo.get(model.getId());
+        assertNotSame(first, second);
+        assertEquals("Test", second.getString());
+    }
+
+    @Test
+    public void testResultsReadBeforeAnInvalidationAreNotStored() {
+        LRUQueryCache cache = new LRUQueryCache(100);
+        Set<String> tables = Collections.singleton("just_strings");
+        long generation = cache.getGeneration(tables);
+        // A write invalidates the table while the query is still running
+        cache.invalidate("just_strings");
+        cache.put("key", tables, 1, generation);
+        assertNull(cache.get("key"));
+
+        cache.put("key", tables, 2, cache.getGeneration(tables));
+        assertEquals(2, cache.get("key"));
+        cache.invalidate("other_table");
+        cache.put("key", tables, 3, generation + 1);
+        assertEquals(3, cache.get("key"));
+    }
+
+    @Test
+    public void testParametersOfDifferentTypesAreCachedSeparately() throws ORMConfigurationException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig());
+        ORM.autoMigrate();
+        LRUQueryCache cache = new LRUQueryCache(100);
+        repo.setQueryCache(cache);
+
+        repo.where("string", "1").count();
+        repo.where("string", 1).count();
+        assertEquals(2, cache.size());
+        assertEquals(0, cache.getStats().getHits());
+    }
+
+}
@@ -0,0 +1,52 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.exception.ORMConfigurationException;
+import org.javawebstack.orm.test.shared.models.JustString;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RawQueryTest extends ORMTestCase {
+
+    @Test
+    public void testRawQueryIsMappedToModels() throws ORMConfigurationException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        for (int i = 0; i < 5; i++) {
+            JustString entry = new JustString();
+            entry.setString("Entry " + i);
+            entry.save();
+        }
+        String query = "WITH `filtered` AS (SELECT * FROM `just_strings` WHERE `id` > ?) SELECT `string`, `id` FROM `filtered` ORDER BY `id` DESC";
+
+        List<JustString> entries = repo.raw(query, 3);
+        assertEquals(2, entries.size());
+        assertEquals(5, entries.get(0).getId());
+        assertEquals("Entry 4", entries.get(0).getString());
+        assertFalse(entries.get(0).isDirty());
+
+        entries = repo.raw(query, 4);
+        assertEquals(1, entries.size());
+        assertEquals("Entry 4", entries.get(0).getString());
+    }
+
+    @Test
+    public void testMissingColumnsStayEmpty() throws ORMConfigurationException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        JustString entry = new JustString();
+        entry.setString("Test");
+        entry.save();
+
+        List<JustString> entries = repo.raw("SELECT `id` FROM `just_strings`");
+        assertEquals(1, entries.size());
+        assertEquals(entry.getId(), entries.get(0).getId());
+        assertNull(entries.get(0).getString());
+    }
+
+}
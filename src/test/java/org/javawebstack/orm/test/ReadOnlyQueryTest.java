@@ -0,0 +1,74 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.exception.ORMConfigurationException;
+import org.javawebstack.orm.exception.ORMQueryException;
+import org.javawebstack.orm.test.shared.models.JustString;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadOnlyQueryTest extends ORMTestCase {
+
+    @Test
+    public void testReadOnlyEntitiesCantBeSaved() throws ORMConfigurationException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        JustString entry = new JustString();
+        entry.setString("Test");
+        entry.save();
+
+        JustString loaded = repo.query().readOnly().first();
+        assertTrue(loaded.isReadOnly());
+        assertEquals("Test", loaded.getString());
+        loaded.setString("Changed");
+        assertThrows(ORMQueryException.class, loaded::save);
+        assertEquals("Test", repo.get(entry.getId()).getString());
+    }
+
+    @Test
+    public void testReadOnlyEntitiesCantBeWrittenInBulkOrDeleted() throws ORMConfigurationException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        JustString entry = new JustString();
+        entry.setString("Test");
+        entry.save();
+
+        JustString loaded = repo.query().readOnly().first();
+        List<JustString> list = Collections.singletonList(loaded);
+        loaded.setString("Changed");
+        assertThrows(ORMQueryException.class, () -> repo.createAll(list));
+        assertThrows(ORMQueryException.class, () -> repo.upsertAll(list));
+        assertThrows(ORMQueryException.class, () -> repo.updateAll(list));
+        assertThrows(ORMQueryException.class, loaded::delete);
+        assertThrows(ORMQueryException.class, () -> repo.deleteAll(list));
+        assertThrows(ORMQueryException.class, loaded::restore);
+        assertThrows(ORMQueryException.class, () -> repo.finalDelete(loaded));
+        assertThrows(ORMQueryException.class, () -> repo.finalDeleteAll(list));
+        assertEquals(1, repo.count());
+        assertEquals("Test", repo.get(entry.getId()).getString());
+    }
+
+    @Test
+    public void testRepoDefault() throws ORMConfigurationException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig()).setReadOnly(true);
+        ORM.autoMigrate(true);
+        JustString entry = new JustString();
+        entry.setString("Test");
+        entry.save();
+
+        assertTrue(repo.get(entry.getId()).isReadOnly());
+        JustString writable = repo.query().readOnly(false).first();
+        assertFalse(writable.isReadOnly());
+        assertFalse(writable.isDirty());
+        writable.setString("Changed");
+        writable.save();
+        assertEquals("Changed", repo.get(entry.getId()).getString());
+    }
+
+}
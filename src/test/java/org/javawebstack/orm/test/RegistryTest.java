@@ -0,0 +1,62 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.test.shared.models.JustString;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.javawebstack.orm.test.shared.setup.ModelSetup.setUpModel;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistryTest {
+
+    @Test
+    void testLookupFollowsRegistration() {
+        ORM.unregister(JustString.class);
+        assertNull(Repo.get(JustString.class));
+        Repo<JustString> repo = setUpModel(JustString.class);
+        assertSame(repo, ORM.repo(JustString.class));
+        assertTrue(ORM.getRepos().contains(repo));
+
+        Repo<JustString> replaced = setUpModel(JustString.class);
+        assertNotSame(repo, replaced);
+        assertSame(replaced, Repo.get(JustString.class));
+
+        ORM.unregister(replaced);
+        assertNull(Repo.get(JustString.class));
+        setUpModel(JustString.class);
+        ORM.reset();
+        assertNull(Repo.get(JustString.class));
+        assertTrue(ORM.getModels().isEmpty());
+    }
+
+    @Test
+    void testConcurrentRegistrationAndLookup() throws Exception {
+        ORM.reset();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 100; j++) {
+                    setUpModel(JustString.class);
+                    assertNotNull(Repo.get(JustString.class));
+                    ORM.getRepos().forEach(r -> assertNotNull(r.getInfo()));
+                }
+            }));
+        }
+        for (Future<?> future : futures)
+            future.get();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, ORM.getModels().size());
+        ORM.reset();
+    }
+
+}
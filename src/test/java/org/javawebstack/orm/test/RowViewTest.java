@@ -0,0 +1,74 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.Model;
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.annotation.Column;
+import org.javawebstack.orm.exception.ORMConfigurationException;
+import org.javawebstack.orm.exception.ORMQueryException;
+import org.javawebstack.orm.query.RowView;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RowViewTest extends ORMTestCase {
+
+    @Test
+    public void testRowsAreReadThroughTheView() throws ORMConfigurationException {
+        Repo<Reading> repo = ORM.register(Reading.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        for (int i = 1; i <= 4; i++) {
+            Reading reading = new Reading();
+            reading.sensor = "Sensor " + i;
+            reading.value = i * 10;
+            reading.weight = i == 4 ? null : 0.5;
+            reading.save();
+        }
+
+        long sum = 0;
+        int nulls = 0;
+        int rows = 0;
+        try (RowView<Reading> view = repo.query().order("id").rows()) {
+            while (view.next()) {
+                rows++;
+                sum += view.getLong("value");
+                assertEquals("Sensor " + rows, view.getString("sensor"));
+                view.getDouble("weight");
+                if (view.wasNull())
+                    nulls++;
+                assertEquals(Integer.valueOf(rows), view.get("id"));
+            }
+        }
+        assertEquals(4, rows);
+        assertEquals(100, sum);
+        assertEquals(1, nulls);
+    }
+
+    @Test
+    public void testUnknownFieldThrows() throws ORMConfigurationException {
+        Repo<Reading> repo = ORM.register(Reading.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        Reading reading = new Reading();
+        reading.sensor = "Sensor";
+        reading.save();
+
+        try (RowView<Reading> view = repo.query().rows()) {
+            assertTrue(view.next());
+            assertThrows(ORMQueryException.class, () -> view.getInt("unknown"));
+            assertFalse(view.next());
+        }
+    }
+
+    public static class Reading extends Model {
+        @Column
+        int id;
+        @Column
+        String sensor;
+        @Column
+        int value;
+        @Column
+        Double weight;
+    }
+
+}
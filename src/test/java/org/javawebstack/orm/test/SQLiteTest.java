@@ -0,0 +1,288 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.Model;
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.annotation.Column;
+import org.javawebstack.orm.annotation.Dates;
+import org.javawebstack.orm.annotation.Searchable;
+import org.javawebstack.orm.annotation.SoftDelete;
+import org.javawebstack.orm.exception.ORMConfigurationException;
+import org.javawebstack.orm.query.QueryPlan;
+import org.javawebstack.orm.util.KeyType;
+import org.javawebstack.orm.wrapper.SQLite;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SQLiteTest {
+
+    private File file;
+    private SQLite sql;
+
+    @BeforeEach
+    public void setUp() throws IOException, SQLException {
+        file = File.createTempFile("orm", ".sqlite");
+        sql = new SQLite(file.getAbsolutePath());
+        sql.write("CREATE TABLE `entries` (`id` INTEGER PRIMARY KEY AUTOINCREMENT, `name` TEXT);");
+        sql.write("CREATE TABLE `notes` (`id` INTEGER PRIMARY KEY AUTOINCREMENT, `text` TEXT, `priority` INTEGER, `created_at` INTEGER, `updated_at` INTEGER, `deleted_at` INTEGER);");
+        sql.write("CREATE TABLE `copies` (`id` TEXT PRIMARY KEY, `source_id` INTEGER, `name` TEXT);");
+        sql.write("CREATE TABLE `accounts` (`id` INTEGER PRIMARY KEY AUTOINCREMENT, `email` TEXT UNIQUE, `name` TEXT);");
+        sql.write("CREATE TABLE `articles` (`id` INTEGER PRIMARY KEY AUTOINCREMENT, `title` TEXT, `body` TEXT);");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ORM.reset();
+        file.delete();
+    }
+
+    @Test
+    public void testCreateAllBackfillsGeneratedIds() throws ORMConfigurationException {
+        Repo<Entry> repo = ORM.register(Entry.class, sql, new ORMConfig());
+        repo.create(entry("first"));
+        List<Entry> entries = Arrays.asList(entry("a"), entry("b"), entry("c"));
+        repo.createAll(entries);
+        for (Entry entry : entries)
+            assertEquals(entry.name, repo.get(entry.id).name);
+        assertEquals(Integer.valueOf(2), entries.get(0).id);
+        assertEquals(Integer.valueOf(4), entries.get(2).id);
+    }
+
+    @Test
+    public void testUpsertSetsIdsOfInsertedAndUpdatedRows() throws ORMConfigurationException, SQLException {
+        Repo<Account> repo = ORM.register(Account.class, sql, new ORMConfig());
+        ORM.register(Entry.class, sql, new ORMConfig());
+        Account first = account("first@example.com", "First");
+        repo.upsert(first);
+        assertEquals(Integer.valueOf(1), first.id);
+        List<Account> accounts = Arrays.asList(account("second@example.com", "Second"), account("third@example.com", "Third"));
+        repo.upsertAll(accounts);
+        assertEquals(Integer.valueOf(2), accounts.get(0).id);
+        assertEquals(Integer.valueOf(3), accounts.get(1).id);
+
+        // Moves last_insert_rowid() away from the accounts table
+        Repo.get(Entry.class).createAll(Arrays.asList(entry("a"), entry("b"), entry("c"), entry("d"), entry("e")));
+
+        Account existing = account("first@example.com", "First changed");
+        repo.upsert(existing);
+        assertEquals(Integer.valueOf(1), existing.id);
+        List<Account> mixed = Arrays.asList(account("third@example.com", "Third changed"), account("fourth@example.com", "Fourth"));
+        repo.upsertAll(mixed);
+        assertEquals(Integer.valueOf(3), mixed.get(0).id);
+        assertTrue(mixed.get(1).id > 3);
+
+        assertEquals("First changed", readName(1));
+        assertEquals("Second", readName(2));
+        assertEquals("Third changed", readName(3));
+        assertEquals("Fourth", readName(mixed.get(1).id));
+        assertEquals(4, repo.count());
+
+        existing.name = "Saved";
+        existing.save();
+        assertEquals("Saved", readName(1));
+    }
+
+    @Test
+    public void testBulkSoftDeleteStaysBelowTheVariableLimit() throws ORMConfigurationException, SQLException {
+        Repo<Note> repo = ORM.register(Note.class, sql, new ORMConfig());
+        List<Note> notes = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            Note note = new Note();
+            note.text = "Note " + i;
+            notes.add(note);
+        }
+        repo.createAll(notes);
+
+        repo.deleteAll(notes);
+        assertEquals(0, countNotes("`deleted_at` IS NULL"));
+        repo.restoreAll(notes);
+        assertEquals(1200, countNotes("`deleted_at` IS NULL"));
+    }
+
+    @Test
+    public void testUpdateAllWritesOnlyTheChangedValues() throws ORMConfigurationException, SQLException {
+        Repo<Note> repo = ORM.register(Note.class, sql, new ORMConfig());
+        List<Note> notes = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Note note = new Note();
+            note.text = "Note " + i;
+            note.priority = i;
+            notes.add(note);
+        }
+        repo.createAll(notes);
+        Timestamp before = notes.get(0).updatedAt;
+        Timestamp untouched = notes.get(1).updatedAt;
+
+        for (int i = 0; i < notes.size(); i += 2)
+            notes.get(i).text = "Changed " + i;
+        repo.updateAll(notes);
+
+        ResultSet rs = sql.read("SELECT `id`,`text`,`priority` FROM `notes` ORDER BY `id`;");
+        int i = 0;
+        while (rs.next()) {
+            assertEquals(notes.get(i).id.intValue(), rs.getInt(1));
+            assertEquals((i % 2 == 0 ? "Changed " : "Note ") + i, rs.getString(2));
+            assertEquals(i, rs.getInt(3));
+            i++;
+        }
+        sql.close(rs);
+        assertEquals(400, i);
+        assertNotSame(before, notes.get(0).updatedAt);
+        assertFalse(notes.get(0).updatedAt.before(before));
+        assertSame(untouched, notes.get(1).updatedAt);
+    }
+
+    @Test
+    public void testInsertIntoCopiesRowsWithGeneratedIds() throws ORMConfigurationException {
+        Repo<Entry> repo = ORM.register(Entry.class, sql, new ORMConfig());
+        Repo<Copy> copies = ORM.register(Copy.class, sql, new ORMConfig());
+        repo.createAll(Arrays.asList(entry("a"), entry("b"), entry("c")));
+        Map<String, String> mapping = new HashMap<>();
+        mapping.put("sourceId", "id");
+        mapping.put("name", "name");
+        repo.where("name", "!=", "b").insertInto(Copy.class, mapping);
+
+        List<Copy> copied = copies.query().order("sourceId").all();
+        assertEquals(2, copied.size());
+        assertEquals(Integer.valueOf(1), copied.get(0).sourceId);
+        assertEquals("a", copied.get(0).name);
+        assertEquals(Integer.valueOf(3), copied.get(1).sourceId);
+        assertEquals("c", copied.get(1).name);
+        assertNotNull(copied.get(0).id);
+        assertNotEquals(copied.get(0).id, copied.get(1).id);
+    }
+
+    @Test
+    public void testExplainTranslatesTheQueryPlan() throws ORMConfigurationException {
+        Repo<Account> repo = ORM.register(Account.class, sql, new ORMConfig());
+        repo.upsertAll(Arrays.asList(account("first@example.com", "First"), account("second@example.com", "Second")));
+
+        QueryPlan byId = repo.whereId(1).explain();
+        assertTrue(byId.usesIndex("PRIMARY"));
+        assertFalse(byId.hasFullScan());
+        assertTrue(repo.where("email", "first@example.com").explain().usesIndex());
+
+        QueryPlan ordered = repo.query().order("name").explain();
+        assertTrue(ordered.hasFullScan());
+        assertTrue(ordered.usesFilesort());
+        assertEquals("accounts", ordered.getSteps().get(0).getTable());
+    }
+
+    @Test
+    public void testFullTextSearchFallsBackToLike() throws ORMConfigurationException {
+        Repo<Article> repo = ORM.register(Article.class, sql, new ORMConfig().setFullTextSearch(true));
+        repo.createAll(Arrays.asList(article("Indexes", "How the optimizer picks them"), article("Joins", "Nested loops and indexes"), article("Locks", "Row level locking")));
+
+        String query = sql.builder().buildQuery(repo.search("index"), false).getQuery();
+        assertFalse(query.contains("MATCH"));
+        assertTrue(query.contains("LIKE"));
+        List<Article> found = repo.search("index").order("id").all();
+        assertEquals(2, found.size());
+        assertEquals("Indexes", found.get(0).title);
+        assertEquals("Joins", found.get(1).title);
+    }
+
+    private int countNotes(String condition) throws SQLException {
+        ResultSet rs = sql.read("SELECT COUNT(*) FROM `notes` WHERE " + condition + ";");
+        int count = rs.next() ? rs.getInt(1) : 0;
+        sql.close(rs);
+        return count;
+    }
+
+    private String readName(int id) throws SQLException {
+        ResultSet rs = sql.read("SELECT `name` FROM `accounts` WHERE `id`=?;", id);
+        String name = rs.next() ? rs.getString(1) : null;
+        sql.close(rs);
+        return name;
+    }
+
+    private static Account account(String email, String name) {
+        Account account = new Account();
+        account.email = email;
+        account.name = name;
+        return account;
+    }
+
+    private static Article article(String title, String body) {
+        Article article = new Article();
+        article.title = title;
+        article.body = body;
+        return article;
+    }
+
+    private static Entry entry(String name) {
+        Entry entry = new Entry();
+        entry.name = name;
+        return entry;
+    }
+
+    public static class Entry extends Model {
+        @Column
+        Integer id;
+        @Column
+        String name;
+    }
+
+    public static class Account extends Model {
+        @Column
+        Integer id;
+        @Column(key = KeyType.UNIQUE)
+        String email;
+        @Column
+        String name;
+    }
+
+    @Dates
+    @SoftDelete
+    public static class Note extends Model {
+        @Column
+        Integer id;
+        @Column
+        String text;
+        @Column
+        Integer priority;
+        @Column
+        Timestamp createdAt;
+        @Column
+        Timestamp updatedAt;
+        @Column
+        Timestamp deletedAt;
+    }
+
+    public static class Article extends Model {
+        @Column
+        Integer id;
+        @Searchable
+        @Column
+        String title;
+        @Searchable
+        @Column
+        String body;
+    }
+
+    public static class Copy extends Model {
+        @Column
+        UUID id;
+        @Column
+        Integer sourceId;
+        @Column
+        String name;
+    }
+
+}
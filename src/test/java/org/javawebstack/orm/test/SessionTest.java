@@ -0,0 +1,80 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.exception.ORMConfigurationException;
+import org.javawebstack.orm.test.shared.models.JustString;
+import org.javawebstack.orm.wrapper.QueryLogger;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionTest extends ORMTestCase {
+
+    @Test
+    public void testRowsAreLoadedOncePerSession() throws ORMConfigurationException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        JustString entry = new JustString();
+        entry.setString("Test");
+        entry.save();
+        int id = entry.getId();
+
+        List<String> queries = new ArrayList<>();
+        QueryLogger logger = (query, parameters) -> queries.add(query);
+        sql().addQueryLogger(logger);
+        ORM.session(() -> {
+            JustString first = repo.query().where("string", "Test").first();
+            JustString second = repo.get(id);
+            JustString third = repo.get((long) id);
+            assertSame(first, second);
+            assertSame(first, third);
+            assertSame(first, repo.all().get(0));
+        });
+        sql().removeQueryLogger(logger);
+        assertEquals(2, queries.size());
+
+        assertNotSame(repo.get(id), repo.get(id));
+    }
+
+    @Test
+    public void testCreatedAndDeletedEntitiesUpdateTheSession() throws ORMConfigurationException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        JustString loaded = ORM.session(() -> {
+            JustString entry = new JustString();
+            entry.setString("Test");
+            entry.save();
+            assertSame(entry, repo.get(entry.getId()));
+            entry.delete();
+            return repo.get(entry.getId());
+        });
+        assertNull(loaded);
+    }
+
+    @Test
+    public void testQueryDeletesDetachTheRows() throws ORMConfigurationException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig());
+        ORM.autoMigrate(true);
+        ORM.session(() -> {
+            JustString first = new JustString();
+            first.setString("First");
+            first.save();
+            JustString second = new JustString();
+            second.setString("Second");
+            second.save();
+
+            repo.whereId(first.getId()).delete();
+            assertNull(repo.get(first.getId()));
+            assertSame(second, repo.get(second.getId()));
+
+            repo.where("string", "Second").finalDelete();
+            assertNull(repo.get(second.getId()));
+        });
+    }
+
+}
@@ -0,0 +1,104 @@
+package org.javawebstack.orm.test;
+
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.TableVersionTracker;
+import org.javawebstack.orm.cache.LRUEntityCache;
+import org.javawebstack.orm.cache.LRUQueryCache;
+import org.javawebstack.orm.exception.ORMConfigurationException;
+import org.javawebstack.orm.test.shared.models.JustString;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TableVersionTest extends ORMTestCase {
+
+    @Test
+    public void testWritesIncreaseTheTableVersion() throws ORMConfigurationException {
+        ORM.register(JustString.class, sql(), new ORMConfig().setTableVersioning(true));
+        ORM.autoMigrate(true);
+        long before = TableVersionTracker.read(sql(), Collections.singleton("just_strings")).getOrDefault("just_strings", 0L);
+        JustString entry = new JustString();
+        entry.setString("Test");
+        entry.save();
+        entry.setString("Changed");
+        entry.save();
+        assertEquals(Long.valueOf(before + 2), TableVersionTracker.read(sql(), Collections.singleton("just_strings")).get("just_strings"));
+    }
+
+    @Test
+    public void testForeignWritesInvalidateCaches() throws ORMConfigurationException, SQLException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig().setTableVersioning(true));
+        ORM.autoMigrate(true);
+        repo.setQueryCache(new LRUQueryCache(100));
+        JustString entry = new JustString();
+        entry.setString("Test");
+        entry.save();
+
+        ORM.validateCaches();
+        assertEquals("Test", repo.where("id", entry.getId()).first().getString());
+
+        // Another node writes the row
+        sql().write("UPDATE `just_strings` SET `string`=? WHERE `id`=?;", "Changed", entry.getId());
+        TableVersionTracker.bump(sql(), "just_strings");
+
+        assertEquals("Test", repo.where("id", entry.getId()).first().getString());
+        ORM.validateCaches();
+        assertEquals("Changed", repo.where("id", entry.getId()).first().getString());
+    }
+
+    @Test
+    public void testOwnWritesDontFlushCaches() throws ORMConfigurationException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig().setTableVersioning(true));
+        ORM.autoMigrate(true);
+        LRUEntityCache cache = new LRUEntityCache(100);
+        repo.setEntityCache(cache);
+        JustString first = new JustString();
+        first.setString("First");
+        first.save();
+        JustString second = new JustString();
+        second.setString("Second");
+        second.save();
+
+        ORM.validateCaches();
+        repo.get(second.getId());
+        first.setString("Changed");
+        first.save();
+        ORM.validateCaches();
+        assertEquals("Second", repo.get(second.getId()).getString());
+        assertEquals(1, cache.getStats().getHits());
+    }
+
+    @Test
+    public void testForeignWritesBetweenOwnWritesInvalidateCaches() throws ORMConfigurationException, SQLException {
+        Repo<JustString> repo = ORM.register(JustString.class, sql(), new ORMConfig().setTableVersioning(true));
+        ORM.autoMigrate(true);
+        LRUEntityCache cache = new LRUEntityCache(100);
+        repo.setEntityCache(cache);
+        JustString first = new JustString();
+        first.setString("First");
+        first.save();
+        JustString second = new JustString();
+        second.setString("Second");
+        second.save();
+
+        ORM.validateCaches();
+        repo.get(second.getId());
+        first.setString("Changed");
+        first.save();
+        // Another node writes the row
+        sql().write("UPDATE `just_strings` SET `string`=? WHERE `id`=?;", "Foreign", second.getId());
+        TableVersionTracker.bump(sql(), "just_strings");
+        first.setString("Changed again");
+        first.save();
+
+        ORM.validateCaches();
+        assertEquals("Foreign", repo.get(second.getId()).getString());
+        assertEquals(0, cache.getStats().getHits());
+    }
+
+}
@@ -2,6 +2,7 @@ package org.javawebstack.orm.test;
 
 import org.javawebstack.orm.ORM;
 import org.javawebstack.orm.ORMConfig;
+import org.javawebstack.orm.Repo;
 import org.javawebstack.orm.exception.ORMConfigurationException;
 import org.javawebstack.orm.test.shared.models.JustString;
 import org.javawebstack.orm.wrapper.QueryLogger;
@@ -51,4 +52,25 @@ public class UpdateOnlyIfIsDirtyTest extends ORMTestCase {
         sql().removeQueryLogger(logger);
     }
 
+    @Test
+    public void testUpdateDirtyOnlyOption() throws ORMConfigurationException {
+        String[] lastUpdate = new String[1];
+        QueryLogger logger = (query, parameters) -> {
+            if(query.startsWith("UPDATE"))
+                lastUpdate[0] = query;
+        };
+        sql().addQueryLogger(logger);
+        ORM.register(JustString.class, sql(), new ORMConfig().setUpdateDirtyOnly(true));
+        ORM.autoMigrate();
+        JustString model = new JustString();
+        model.setString("Test");
+        model.save();
+        model.setString("TestB");
+        model.save();
+        sql().removeQueryLogger(logger);
+        assertNotNull(lastUpdate[0]);
+        assertTrue(lastUpdate[0].contains("SET `string`=? WHERE"));
+        assertEquals("TestB", Repo.get(JustString.class).get(model.getId()).getString());
+    }
+
 }
@@ -0,0 +1,36 @@
+package org.javawebstack.orm.test.querybuilding;
+
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.test.shared.models.Datatype;
+import org.javawebstack.orm.wrapper.builder.SQLQueryString;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.javawebstack.orm.test.shared.setup.ModelSetup.setUpModel;
+import static org.junit.jupiter.api.Assertions.*;
+
+// This class tests the query generation for multi-row updates via CASE in MySQL
+class BatchUpdateClauseTest {
+
+    @Test
+    void testCaseExpressionPerColumn() {
+        Repo<Datatype> repo = setUpModel(Datatype.class);
+        Map<Object, Object> integers = new LinkedHashMap<>();
+        integers.put(1, 10);
+        integers.put(2, 20);
+        Map<Object, Object> strings = new LinkedHashMap<>();
+        strings.put(2, "B");
+        Map<String, Map<Object, Object>> values = new LinkedHashMap<>();
+        values.put("primitive_integer", integers);
+        values.put("wrapper_string", strings);
+
+        SQLQueryString qs = repo.getConnection().builder().buildBatchUpdate(repo.query().whereIn("id", 1, 2), values);
+
+        assertEquals("UPDATE `datatypes` SET `primitive_integer`=CASE `id` WHEN ? THEN ? WHEN ? THEN ? ELSE `primitive_integer` END,`wrapper_string`=CASE `id` WHEN ? THEN ? ELSE `wrapper_string` END WHERE (`id` IN (?,?));", qs.getQuery());
+        assertEquals(Arrays.asList(1, 10, 2, 20, 2, "B", 1, 2), qs.getParameters());
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.javawebstack.orm.test.querybuilding;
+
+import org.javawebstack.orm.Model;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.annotation.Column;
+import org.javawebstack.orm.annotation.Dates;
+import org.javawebstack.orm.query.Query;
+import org.javawebstack.orm.test.shared.models.Datatype;
+import org.javawebstack.orm.wrapper.builder.SQLQueryString;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.javawebstack.orm.test.shared.setup.ModelSetup.setUpModel;
+import static org.junit.jupiter.api.Assertions.*;
+
+// This class tests the query generation for INSERT ... SELECT statements in MySQL
+class InsertSelectClauseTest {
+
+    @Test
+    void testColumnMappingAndWhereClause() {
+        Repo<Snapshot> target = setUpModel(Snapshot.class);
+        Query<Datatype> query = setUpModel(Datatype.class).query()
+                .where("primitiveInteger", ">", 5)
+                .order("id");
+        Map<String, String> mapping = new LinkedHashMap<>();
+        mapping.put("sourceId", "id");
+        mapping.put("value", "wrapperString");
+        SQLQueryString qs = query.getRepo().getConnection().builder().buildInsertSelect(query, target.getInfo(), mapping);
+
+        assertTrue(qs.getQuery().startsWith("INSERT INTO `snapshots` (`source_id`,`value`,`created_at`,`updated_at`) SELECT `id`,`wrapper_string`,?,? FROM `datatypes` WHERE (`primitive_integer` > ?) ORDER BY `id`"));
+        assertEquals(3, qs.getParameters().size());
+        assertTrue(qs.getParameters().get(0) instanceof Timestamp);
+        assertEquals(5, qs.getParameters().get(2));
+    }
+
+    @Test
+    void testGeneratedUUIDForTargetsWithUUIDId() {
+        Repo<Copy> target = setUpModel(Copy.class);
+        Query<Datatype> query = setUpModel(Datatype.class).query();
+        Map<String, String> mapping = new LinkedHashMap<>();
+        mapping.put("value", "wrapperString");
+        SQLQueryString qs = query.getRepo().getConnection().builder().buildInsertSelect(query, target.getInfo(), mapping);
+
+        assertTrue(qs.getQuery().startsWith("INSERT INTO `copies` (`value`,`id`) SELECT `wrapper_string`,UUID() FROM `datatypes`"));
+    }
+
+    public static class Copy extends Model {
+        @Column
+        UUID id;
+        @Column
+        String value;
+    }
+
+    @Dates
+    public static class Snapshot extends Model {
+        @Column
+        int id;
+        @Column
+        int sourceId;
+        @Column
+        String value;
+        @Column
+        Timestamp createdAt;
+        @Column
+        Timestamp updatedAt;
+    }
+
+}
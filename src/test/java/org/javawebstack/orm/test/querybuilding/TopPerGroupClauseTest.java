@@ -0,0 +1,50 @@
+package org.javawebstack.orm.test.querybuilding;
+
+import org.javawebstack.orm.exception.ORMQueryException;
+import org.javawebstack.orm.query.Query;
+import org.javawebstack.orm.test.shared.models.Datatype;
+import org.javawebstack.orm.wrapper.builder.SQLQueryString;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static org.javawebstack.orm.test.shared.setup.ModelSetup.setUpModel;
+import static org.junit.jupiter.api.Assertions.*;
+
+// This class tests the query generation for top-n-per-group queries in MySQL
+class TopPerGroupClauseTest {
+
+    @Test
+    void testRowNumberSubquery() {
+        Query<Datatype> query = setUpModel(Datatype.class).query()
+                .where("primitiveInteger", ">", 5)
+                .topPerGroup("optionEnum", "timestamp", true, 3)
+                .order("id")
+                .limit(10);
+        SQLQueryString qs = query.getRepo().getConnection().builder().buildQuery(query, false);
+
+        assertEquals("SELECT * FROM (SELECT `datatypes`.*, ROW_NUMBER() OVER (PARTITION BY `option_enum` ORDER BY `timestamp` DESC) AS `orm_row_number` FROM `datatypes` WHERE (`primitive_integer` > ?)) AS `datatypes` WHERE `orm_row_number` <= ? ORDER BY `id` LIMIT ?", qs.getQuery());
+        assertEquals(Arrays.asList(5, 3, 10), qs.getParameters());
+    }
+
+    @Test
+    void testCountWithPartition() {
+        Query<Datatype> query = setUpModel(Datatype.class).query()
+                .topPerGroup("optionEnum", "id", 1);
+        SQLQueryString qs = query.getRepo().getConnection().builder().buildQuery(query, true);
+
+        assertTrue(qs.getQuery().startsWith("SELECT COUNT(*) FROM (SELECT `datatypes`.*, ROW_NUMBER() OVER (PARTITION BY `option_enum` ORDER BY `id`)"));
+    }
+
+    @Test
+    void testWritesWithPartitionAreRejected() {
+        Query<Datatype> query = setUpModel(Datatype.class).query()
+                .topPerGroup("optionEnum", "id", 1);
+
+        assertThrows(ORMQueryException.class, () -> query.getRepo().getConnection().builder().buildUpdate(query, new HashMap<>()));
+        assertThrows(ORMQueryException.class, () -> query.getRepo().getConnection().builder().buildDelete(query));
+        assertThrows(ORMQueryException.class, query::finalDelete);
+    }
+
+}
@@ -0,0 +1,62 @@
+package org.javawebstack.orm.test.querybuilding;
+
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.exception.ORMQueryException;
+import org.javawebstack.orm.query.Query;
+import org.javawebstack.orm.query.QueryColumn;
+import org.javawebstack.orm.query.QueryExpression;
+import org.javawebstack.orm.test.shared.models.Datatype;
+import org.javawebstack.orm.wrapper.builder.SQLQueryString;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.javawebstack.orm.test.shared.setup.ModelSetup.setUpModel;
+import static org.junit.jupiter.api.Assertions.*;
+
+// This class tests the query generation for update statements in MySQL
+class UpdateClauseTest {
+
+    @Test
+    void testPlainValueUpdate() {
+        SQLQueryString qs = buildUpdate("primitiveInteger", 5);
+        assertEquals("UPDATE `datatypes` SET `primitive_integer`=? WHERE (`id` = ?);", qs.getQuery());
+        assertEquals(5, qs.getParameters().get(0));
+    }
+
+    @Test
+    void testIncrementExpressionUpdate() {
+        SQLQueryString qs = buildUpdate("primitiveInteger", QueryExpression.add("primitiveInteger", 3));
+        assertEquals("UPDATE `datatypes` SET `primitive_integer`=`primitive_integer` + ? WHERE (`id` = ?);", qs.getQuery());
+        assertEquals(3, qs.getParameters().get(0));
+        assertEquals(1, qs.getParameters().get(1));
+    }
+
+    @Test
+    void testDecrementExpressionUpdate() {
+        SQLQueryString qs = buildUpdate("primitiveLong", QueryExpression.subtract("primitiveLong", 2L));
+        assertEquals("UPDATE `datatypes` SET `primitive_long`=`primitive_long` - ? WHERE (`id` = ?);", qs.getQuery());
+    }
+
+    @Test
+    void testColumnValueUpdate() {
+        SQLQueryString qs = buildUpdate("primitiveInteger", new QueryColumn("wrapperInteger"));
+        assertEquals("UPDATE `datatypes` SET `primitive_integer`=`wrapper_integer` WHERE (`id` = ?);", qs.getQuery());
+        assertEquals(1, qs.getParameters().size());
+    }
+
+    @Test
+    void testInvalidExpressionOperatorIsRejected() {
+        assertThrows(ORMQueryException.class, () -> new QueryExpression("primitiveInteger", "; DROP TABLE", 1));
+    }
+
+    private SQLQueryString buildUpdate(String field, Object value) {
+        Repo<Datatype> repo = setUpModel(Datatype.class);
+        Query<Datatype> query = repo.whereId(1);
+        Map<String, Object> values = new HashMap<>();
+        values.put(repo.getInfo().getColumnName(field), value);
+        return repo.getConnection().builder().buildUpdate(query, values);
+    }
+
+}
@@ -0,0 +1,76 @@
+package org.javawebstack.orm.test.querybuilding;
+
+import org.javawebstack.orm.Model;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.annotation.Column;
+import org.javawebstack.orm.util.KeyType;
+import org.javawebstack.orm.wrapper.builder.SQLQueryString;
+import org.javawebstack.orm.wrapper.builder.SQLiteQueryStringBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.javawebstack.orm.test.shared.setup.ModelSetup.setUpModel;
+import static org.junit.jupiter.api.Assertions.*;
+
+// This class tests the query generation for upserts in MySQL and SQLite
+class UpsertClauseTest {
+
+    @Test
+    void testMySQLOnDuplicateKeyUpdate() {
+        Repo<Account> repo = setUpModel(Account.class);
+        SQLQueryString qs = repo.getConnection().builder().buildUpsert(repo.getInfo(), rows(2));
+        String query = qs.getQuery();
+        assertTrue(query.startsWith("INSERT INTO `accounts` ("));
+        assertTrue(query.contains(" VALUES (?,?,?),(?,?,?) ON DUPLICATE KEY UPDATE "));
+        assertTrue(query.contains("`email`=VALUES(`email`)"));
+        assertTrue(query.contains("`name`=VALUES(`name`)"));
+        assertTrue(query.contains("`id`=LAST_INSERT_ID(`id`)"));
+        assertFalse(query.contains("`id`=VALUES(`id`)"));
+        assertEquals(6, qs.getParameters().size());
+    }
+
+    @Test
+    void testSQLiteOnConflict() {
+        Repo<Account> repo = setUpModel(Account.class);
+        SQLQueryString qs = SQLiteQueryStringBuilder.INSTANCE.buildUpsert(repo.getInfo(), rows(1));
+        String query = qs.getQuery();
+        assertTrue(query.contains(" VALUES (?,?,?) ON CONFLICT (`email`) DO UPDATE SET "));
+        assertTrue(query.contains("`name`=excluded.`name`"));
+        assertFalse(query.contains("`id`=excluded.`id`"));
+        assertFalse(query.contains("ON CONFLICT (`id`)"));
+    }
+
+    @Test
+    void testSQLiteOnConflictWithIdTargetsAllKeys() {
+        Repo<Account> repo = setUpModel(Account.class);
+        List<Map<String, Object>> rows = rows(1);
+        rows.get(0).put("id", 1);
+        String query = SQLiteQueryStringBuilder.INSTANCE.buildUpsert(repo.getInfo(), rows).getQuery();
+        assertTrue(query.contains(" VALUES (?,?,?) ON CONFLICT (`id`) DO UPDATE SET "));
+        assertTrue(query.contains(" ON CONFLICT (`email`) DO UPDATE SET "));
+        assertTrue(query.endsWith(";"));
+    }
+
+    private List<Map<String, Object>> rows(int count) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", null);
+            row.put("email", "user" + i + "@example.com");
+            row.put("name", "User " + i);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    public static class Account extends Model {
+        @Column
+        int id;
+        @Column(key = KeyType.UNIQUE)
+        String email;
+        @Column
+        String name;
+    }
+
+}
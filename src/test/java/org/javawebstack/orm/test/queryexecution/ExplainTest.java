@@ -0,0 +1,42 @@
+package org.javawebstack.orm.test.queryexecution;
+
+import org.javawebstack.orm.ORM;
+import org.javawebstack.orm.Repo;
+import org.javawebstack.orm.query.QueryPlan;
+import org.javawebstack.orm.test.ORMTestCase;
+import org.javawebstack.orm.test.shared.models.OnlyIdModel;
+import org.javawebstack.orm.test.shared.setup.ModelSetup;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExplainTest extends ORMTestCase {
+
+    @Test
+    void testPrimaryKeyLookupUsesIndex() {
+        ModelSetup.setUpModel(OnlyIdModel.class);
+        ORM.autoMigrate(true);
+
+        for (int i = 0; i < 10; i++)
+            new OnlyIdModel().save();
+
+        QueryPlan plan = Repo.get(OnlyIdModel.class).whereId(5).explain();
+        assertFalse(plan.getSteps().isEmpty());
+        assertTrue(plan.usesIndex("PRIMARY"));
+        assertFalse(plan.hasFullScan());
+    }
+
+    @Test
+    void testUnfilteredQueryIsReported() {
+        ModelSetup.setUpModel(OnlyIdModel.class);
+        ORM.autoMigrate(true);
+
+        new OnlyIdModel().save();
+        new OnlyIdModel().save();
+
+        QueryPlan plan = Repo.get(OnlyIdModel.class).query().explain();
+        assertEquals(1, plan.getSteps().size());
+        assertNotNull(plan.getSteps().get(0).getAccessType());
+    }
+
+}